@@ -0,0 +1,128 @@
+package de.craftsblock.craftscore.benchmarks.event;
+
+import de.craftsblock.craftscore.benchmarks.event.BenchmarkEvents.CountingEvent;
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.EventExecutors;
+import de.craftsblock.craftscore.event.EventPriority;
+import de.craftsblock.craftscore.event.ListenerRegistry;
+import de.craftsblock.craftscore.event.queue.CallQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the asynchronous dispatch paths of the event system, that is
+ * {@link ListenerRegistry#callAsync(Event)} with listeners fanned out over
+ * all priorities and the deferred dispatch through {@link CallQueue#dispatch()}.
+ * <p>
+ * The {@code executor} parameter compares a cached thread pool with the
+ * {@link EventExecutors#newDefaultExecutor() default executor}, which uses virtual
+ * threads on Java 21 and newer, and a {@link EventExecutors#bounded(ExecutorService, int)
+ * bounded} variant of it.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @since 3.8.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AsyncDispatchBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int listeners;
+
+    @Param({"1", "100"})
+    public int batch;
+
+    @Param({"CACHED", "DEFAULT", "BOUNDED"})
+    public ExecutorKind executor;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private ExecutorService executorService;
+    private ListenerRegistry registry;
+    private CallQueue callQueue;
+
+    @Setup
+    public void setup() {
+        executorService = switch (executor) {
+            case CACHED -> Executors.newCachedThreadPool();
+            case DEFAULT -> EventExecutors.newDefaultExecutor();
+            case BOUNDED -> EventExecutors.bounded(EventExecutors.newDefaultExecutor(), 16);
+        };
+        registry = new ListenerRegistry(executorService);
+        callQueue = registry.getCallQueue();
+
+        EventPriority[] priorities = EventPriority.values();
+        for (int i = 0; i < listeners; i++) {
+            registry.register(CountingEvent.class, e -> counter.incrementAndGet(), priorities[i % priorities.length]);
+        }
+
+        // Bake the chain outside of the measurement
+        registry.call(new CountingEvent());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public Event callAsync() {
+        return registry.callAsync(new CountingEvent()).join();
+    }
+
+    @Benchmark
+    public Event callAsyncFanOut() {
+        CompletableFuture<?>[] futures = new CompletableFuture[batch];
+        for (int i = 0; i < batch; i++) {
+            futures[i] = registry.callAsync(new CountingEvent());
+        }
+
+        CompletableFuture.allOf(futures).join();
+        return (Event) futures[batch - 1].join();
+    }
+
+    @Benchmark
+    public Event queueAndDispatch() {
+        CompletableFuture<Event> last = null;
+        for (int i = 0; i < batch; i++) {
+            last = callQueue.queue(new CountingEvent());
+        }
+
+        callQueue.dispatch();
+        return last.join();
+    }
+
+    @Benchmark
+    public Event queueAsyncAndDispatch() {
+        CompletableFuture<?>[] futures = new CompletableFuture[batch];
+        for (int i = 0; i < batch; i++) {
+            futures[i] = callQueue.queueAsync(new CountingEvent());
+        }
+
+        callQueue.dispatch();
+        CompletableFuture.allOf(futures).join();
+        return (Event) futures[batch - 1].join();
+    }
+
+    /**
+     * The executor services to compare.
+     */
+    public enum ExecutorKind {
+
+        CACHED,
+        DEFAULT,
+        BOUNDED
+
+    }
+
+}
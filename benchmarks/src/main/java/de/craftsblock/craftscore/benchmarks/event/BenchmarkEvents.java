@@ -0,0 +1,101 @@
+package de.craftsblock.craftscore.benchmarks.event;
+
+import de.craftsblock.craftscore.event.CancellableEvent;
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.EventHandler;
+import de.craftsblock.craftscore.event.ListenerAdapter;
+
+/**
+ * Shared event types and listener adapters used by the event benchmarks.
+ * <p>
+ * All listeners only touch a counter on the event, so that the measured cost
+ * is dominated by the dispatch machinery rather than by the listener bodies.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @since 3.8.17
+ */
+final class BenchmarkEvents {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BenchmarkEvents() {
+    }
+
+    /**
+     * A plain event counting the listeners it visited.
+     */
+    static class CountingEvent extends Event {
+
+        int hits;
+
+    }
+
+    /**
+     * A cancellable event counting the listeners it visited.
+     */
+    static class CountingCancellableEvent extends CancellableEvent {
+
+        int hits;
+
+    }
+
+    /**
+     * Listener adapter handling {@link CountingEvent} through an {@link EventHandler} method.
+     */
+    public static class CountingListener implements ListenerAdapter {
+
+        @EventHandler
+        public void handle(CountingEvent event) {
+            event.hits++;
+        }
+
+    }
+
+    /**
+     * Listener adapter handling {@link CountingCancellableEvent} and skipping cancelled events.
+     */
+    public static class IgnoringCancelledListener implements ListenerAdapter {
+
+        @EventHandler(ignoreWhenCancelled = true)
+        public void handle(CountingCancellableEvent event) {
+            event.hits++;
+        }
+
+    }
+
+    /**
+     * Root of the deep event hierarchy used by {@link EventHierarchyBenchmark}.
+     */
+    static class Depth0Event extends CountingEvent {
+    }
+
+    static class Depth1Event extends Depth0Event {
+    }
+
+    static class Depth2Event extends Depth1Event {
+    }
+
+    static class Depth3Event extends Depth2Event {
+    }
+
+    static class Depth4Event extends Depth3Event {
+    }
+
+    static class Depth5Event extends Depth4Event {
+    }
+
+    static class Depth6Event extends Depth5Event {
+    }
+
+    static class Depth7Event extends Depth6Event {
+    }
+
+    /**
+     * The leaf of the deep event hierarchy, nine levels below {@link CountingEvent}.
+     */
+    static class Depth8Event extends Depth7Event {
+    }
+
+}
@@ -0,0 +1,66 @@
+package de.craftsblock.craftscore.benchmarks.event;
+
+import de.craftsblock.craftscore.benchmarks.event.BenchmarkEvents.CountingCancellableEvent;
+import de.craftsblock.craftscore.benchmarks.event.BenchmarkEvents.IgnoringCancelledListener;
+import de.craftsblock.craftscore.event.ListenerRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the dispatch throughput of cancelled and non-cancelled
+ * {@link de.craftsblock.craftscore.event.CancellableEvent cancellable events}
+ * for a chain in which every listener ignores cancelled events.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @since 3.8.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CancellationBenchmark {
+
+    @Param({"10", "100"})
+    public int listeners;
+
+    @Param({"false", "true"})
+    public boolean cancelled;
+
+    private ExecutorService executor;
+    private ListenerRegistry registry;
+    private CountingCancellableEvent event;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        registry = new ListenerRegistry(executor);
+
+        for (int i = 0; i < listeners; i++) {
+            registry.register(new IgnoringCancelledListener());
+        }
+
+        event = new CountingCancellableEvent();
+        event.setCancelled(cancelled);
+
+        // Bake the chain outside of the measurement
+        registry.call(event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int call() {
+        registry.call(event);
+        return event.hits;
+    }
+
+}
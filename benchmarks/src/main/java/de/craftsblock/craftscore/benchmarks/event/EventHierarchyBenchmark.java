@@ -0,0 +1,70 @@
+package de.craftsblock.craftscore.benchmarks.event;
+
+import de.craftsblock.craftscore.benchmarks.event.BenchmarkEvents.*;
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.ListenerRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the dispatch throughput for events that sit deep inside an event
+ * class hierarchy, with a single listener attached to every level of the hierarchy.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @since 3.8.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EventHierarchyBenchmark {
+
+    private static final List<Class<? extends CountingEvent>> HIERARCHY = List.of(
+            Depth0Event.class, Depth1Event.class, Depth2Event.class,
+            Depth3Event.class, Depth4Event.class, Depth5Event.class,
+            Depth6Event.class, Depth7Event.class, Depth8Event.class
+    );
+
+    @Param({"0", "4", "8"})
+    public int depth;
+
+    private ExecutorService executor;
+    private ListenerRegistry registry;
+    private CountingEvent event;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        executor = Executors.newSingleThreadExecutor();
+        registry = new ListenerRegistry(executor);
+
+        registry.register(Event.class, e -> ((CountingEvent) e).hits++);
+        registry.register(CountingEvent.class, e -> e.hits++);
+        for (int level = 0; level <= depth; level++) {
+            registry.register(HIERARCHY.get(level), e -> e.hits++);
+        }
+
+        event = HIERARCHY.get(depth).getDeclaredConstructor().newInstance();
+
+        // Bake the chain outside of the measurement
+        registry.call(event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int call() {
+        registry.call(event);
+        return event.hits;
+    }
+
+}
@@ -0,0 +1,85 @@
+package de.craftsblock.craftscore.benchmarks.event;
+
+import de.craftsblock.craftscore.benchmarks.event.BenchmarkEvents.CountingEvent;
+import de.craftsblock.craftscore.benchmarks.event.BenchmarkEvents.CountingListener;
+import de.craftsblock.craftscore.event.ListenerRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the synchronous dispatch throughput of {@link ListenerRegistry#call(de.craftsblock.craftscore.event.Event)}
+ * for listener chains of different lengths, built either from
+ * {@link de.craftsblock.craftscore.event.listener.ReflectionListener reflection listeners}
+ * or from {@link de.craftsblock.craftscore.event.listener.DirectListener direct listeners}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @since 3.8.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ListenerChainBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int listeners;
+
+    @Param({"REFLECTION", "DIRECT"})
+    public ListenerKind kind;
+
+    private ExecutorService executor;
+    private ListenerRegistry registry;
+    private CountingEvent event;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        registry = new ListenerRegistry(executor);
+        event = new CountingEvent();
+
+        for (int i = 0; i < listeners; i++) {
+            switch (kind) {
+                case REFLECTION -> registry.register(new CountingListener());
+                case DIRECT -> registry.register(CountingEvent.class, e -> e.hits++);
+            }
+        }
+
+        // Bake the chain outside of the measurement
+        registry.call(event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int call() {
+        registry.call(event);
+        return event.hits;
+    }
+
+    @Benchmark
+    public int callFresh() {
+        CountingEvent fresh = new CountingEvent();
+        registry.call(fresh);
+        return fresh.hits;
+    }
+
+    /**
+     * The type of listener the benchmarked chain is built from.
+     */
+    public enum ListenerKind {
+
+        REFLECTION,
+        DIRECT
+
+    }
+
+}
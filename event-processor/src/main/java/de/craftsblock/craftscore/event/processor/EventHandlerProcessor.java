@@ -0,0 +1,390 @@
+package de.craftsblock.craftscore.event.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * An annotation processor which generates a handler index for every listener adapter
+ * with event handler methods.
+ * <p>
+ * For every concrete class implementing {@code ListenerAdapter}, which declares or inherits
+ * methods annotated with {@code EventHandler}, a class named like the binary name of the
+ * adapter followed by {@code $$EventHandlers} is generated into the package of the adapter.
+ * It implements {@code HandlerIndex} and describes all handler methods together with
+ * invokers which call the handler methods directly. The {@code ListenerRegistry} picks
+ * the generated index up when an adapter is registered, so that neither registering nor
+ * calling the handlers requires reflection.
+ * <p>
+ * Adapters whose handler methods can not be called from their own package, for example
+ * because they are private, are skipped with a warning and keep being handled through
+ * reflection at runtime. A reflection configuration for native images, which keeps the
+ * generated classes, is written to {@value #NATIVE_IMAGE_CONFIG}.
+ * <p>
+ * The processor only depends on the names of the annotated types and therefore does not
+ * need the event module on the annotation processor path.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @since 3.8.17
+ */
+@SupportedAnnotationTypes(EventHandlerProcessor.EVENT_HANDLER)
+public class EventHandlerProcessor extends AbstractProcessor {
+
+    static final String EVENT_HANDLER = "de.craftsblock.craftscore.event.EventHandler";
+    static final String EVENT = "de.craftsblock.craftscore.event.Event";
+    static final String LISTENER_ADAPTER = "de.craftsblock.craftscore.event.ListenerAdapter";
+
+    static final String INDEX_SUFFIX = "$$EventHandlers";
+    static final String NATIVE_IMAGE_CONFIG = "META-INF/native-image/craftscore-event/reflect-config.json";
+
+    private final Set<String> generated = new LinkedHashSet<>();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param annotations {@inheritDoc}
+     * @param roundEnv    {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement eventHandler = elements.getTypeElement(EVENT_HANDLER);
+        TypeElement adapter = elements.getTypeElement(LISTENER_ADAPTER);
+
+        if (roundEnv.processingOver()) {
+            writeNativeImageConfig();
+            return false;
+        }
+
+        if (eventHandler == null || adapter == null) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(eventHandler)) {
+            if (element instanceof ExecutableElement method) {
+                validate(method);
+            }
+        }
+
+        Deque<Element> pending = new ArrayDeque<>(roundEnv.getRootElements());
+        while (!pending.isEmpty()) {
+            Element element = pending.poll();
+            if (!(element instanceof TypeElement type)) {
+                continue;
+            }
+
+            pending.addAll(ElementFilter.typesIn(type.getEnclosedElements()));
+            if (isConcreteAdapter(type, adapter)) {
+                generate(type);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Reports an error if the given handler method does not accept exactly one event.
+     *
+     * @param method The handler method.
+     */
+    private void validate(ExecutableElement method) {
+        if (method.getParameters().size() == 1 && isEventType(method.getParameters().get(0).asType())) {
+            return;
+        }
+
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "The method %s is annotated with %s but does not accept a single %s or interface!".formatted(
+                        method.getSimpleName(), EVENT_HANDLER, EVENT
+                ), method);
+    }
+
+    /**
+     * Generates the handler index of the given adapter class, if it has handler methods
+     * which can be called by the generated code.
+     *
+     * @param type The adapter class.
+     */
+    private void generate(TypeElement type) {
+        Elements elements = processingEnv.getElementUtils();
+        Messager messager = processingEnv.getMessager();
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String indexName = binaryName + INDEX_SUFFIX;
+        if (generated.contains(indexName)) {
+            return;
+        }
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        collectHandlers(type, type, methods);
+        if (methods.isEmpty()) {
+            return;
+        }
+
+        List<HandlerIndexWriter.Handler> handlers = new ArrayList<>(methods.size());
+        for (ExecutableElement method : methods) {
+            if (method.getParameters().size() != 1 || !isEventType(method.getParameters().get(0).asType())) {
+                return;
+            }
+
+            TypeElement eventType = asTypeElement(processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()));
+            if (!isAccessible(method, packageName) || !isAccessible(eventType, packageName)) {
+                messager.printMessage(Diagnostic.Kind.WARNING,
+                        "The handler %s#%s is not accessible from %s, the handlers of %s are resolved with reflection!".formatted(
+                                method.getEnclosingElement().getSimpleName(), method.getSimpleName(), packageName, type.getQualifiedName()
+                        ), type);
+                return;
+            }
+
+            handlers.add(describe(method));
+        }
+
+        if (!isAccessible(type, packageName)) {
+            messager.printMessage(Diagnostic.Kind.WARNING,
+                    "The adapter %s is not accessible from its package, its handlers are resolved with reflection!".formatted(
+                            type.getQualifiedName()
+                    ), type);
+            return;
+        }
+
+        String simpleName = indexName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+        String source = HandlerIndexWriter.write(packageName, simpleName, erasure(type.asType()), handlers);
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(indexName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+
+            generated.add(indexName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write the handler index %s: %s".formatted(indexName, e.getMessage()), type);
+        }
+    }
+
+    /**
+     * Collects the handler methods of the given type and its super types in the same way
+     * the runtime scan does: handlers of interfaces and super classes come first, and
+     * overridden methods are replaced by the overriding ones.
+     *
+     * @param origin  The adapter class the handlers are collected for.
+     * @param type    The type to collect the handlers of.
+     * @param methods The list to add the handler methods to.
+     */
+    private void collectHandlers(TypeElement origin, TypeElement type, List<ExecutableElement> methods) {
+        if (type == null || type.getQualifiedName().contentEquals(Object.class.getName())) {
+            return;
+        }
+
+        for (TypeMirror iface : type.getInterfaces()) {
+            collectHandlers(origin, asTypeElement(iface), methods);
+        }
+
+        collectHandlers(origin, asTypeElement(type.getSuperclass()), methods);
+
+        Elements elements = processingEnv.getElementUtils();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            methods.removeIf(existing -> elements.overrides(method, existing, origin));
+
+            if (annotation(method) != null) {
+                methods.add(method);
+            }
+        }
+    }
+
+    /**
+     * Creates the description of a handler method for the generated code.
+     *
+     * @param method The handler method.
+     * @return The description of the handler.
+     */
+    private HandlerIndexWriter.Handler describe(ExecutableElement method) {
+        Elements elements = processingEnv.getElementUtils();
+        AnnotationMirror annotation = Objects.requireNonNull(annotation(method));
+
+        String priority = "NORMAL";
+        boolean ignoreWhenCancelled = false;
+        String key = "";
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            Object value = entry.getValue().getValue();
+            switch (entry.getKey().getSimpleName().toString()) {
+                case "priority" -> priority = ((VariableElement) value).getSimpleName().toString();
+                case "ignoreWhenCancelled" -> ignoreWhenCancelled = (Boolean) value;
+                case "key" -> key = (String) value;
+            }
+        }
+
+        return new HandlerIndexWriter.Handler(
+                erasure(method.getParameters().get(0).asType()),
+                erasure(method.getEnclosingElement().asType()),
+                method.getSimpleName().toString(),
+                key.isEmpty() ? null : elements.getConstantExpression(key),
+                priority, ignoreWhenCancelled,
+                method.getModifiers().contains(Modifier.STATIC)
+        );
+    }
+
+    /**
+     * Writes the native image reflection configuration of all generated handler indices.
+     */
+    private void writeNativeImageConfig() {
+        if (generated.isEmpty()) {
+            return;
+        }
+
+        StringBuilder config = new StringBuilder("[\n");
+        Iterator<String> iterator = generated.iterator();
+        while (iterator.hasNext()) {
+            config.append("  {\"name\": \"").append(iterator.next())
+                    .append("\", \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]}")
+                    .append(iterator.hasNext() ? ",\n" : "\n");
+        }
+        config.append("]\n");
+
+        Filer filer = processingEnv.getFiler();
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", NATIVE_IMAGE_CONFIG).openWriter()) {
+            writer.write(config.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write the native image configuration: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether the given type is a concrete class implementing the listener adapter interface.
+     *
+     * @param type    The type to check.
+     * @param adapter The listener adapter interface.
+     * @return {@code true} if the type is a concrete adapter class, otherwise {@code false}.
+     */
+    private boolean isConcreteAdapter(TypeElement type, TypeElement adapter) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        return types.isAssignable(types.erasure(type.asType()), types.erasure(adapter.asType()));
+    }
+
+    /**
+     * Returns whether the given type can be passed to an event handler, which is the case
+     * for subclasses of the event class and for interfaces.
+     *
+     * @param type The type to check.
+     * @return {@code true} if the type is an event type, otherwise {@code false}.
+     */
+    private boolean isEventType(TypeMirror type) {
+        TypeElement element = asTypeElement(processingEnv.getTypeUtils().erasure(type));
+        if (element == null) {
+            return false;
+        }
+
+        if (element.getKind() == ElementKind.INTERFACE) {
+            return true;
+        }
+
+        TypeElement event = processingEnv.getElementUtils().getTypeElement(EVENT);
+        Types types = processingEnv.getTypeUtils();
+        return event != null && types.isSubtype(types.erasure(type), types.erasure(event.asType()));
+    }
+
+    /**
+     * Returns whether the given element and all of its enclosing types can be accessed
+     * from another class in the given package.
+     *
+     * @param element     The element to check.
+     * @param packageName The package of the accessing class.
+     * @return {@code true} if the element is accessible, otherwise {@code false}.
+     */
+    private boolean isAccessible(Element element, String packageName) {
+        Elements elements = processingEnv.getElementUtils();
+        boolean samePackage = elements.getPackageOf(element).getQualifiedName().contentEquals(packageName);
+
+        for (Element current = element; current != null && current.getKind() != ElementKind.PACKAGE;
+             current = current.getEnclosingElement()) {
+            Set<Modifier> modifiers = current.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+
+            if (!modifiers.contains(Modifier.PUBLIC) && !samePackage) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the event handler annotation of the given method.
+     *
+     * @param method The method.
+     * @return The annotation, or {@code null} if the method is not an event handler.
+     */
+    private AnnotationMirror annotation(ExecutableElement method) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            Element type = mirror.getAnnotationType().asElement();
+            if (type instanceof TypeElement element && element.getQualifiedName().contentEquals(EVENT_HANDLER)) {
+                return mirror;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the type element of the given declared type.
+     *
+     * @param type The type.
+     * @return The type element, or {@code null} if the type is not a declared type.
+     */
+    private TypeElement asTypeElement(TypeMirror type) {
+        if (type == null || type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
+
+    /**
+     * Returns the source representation of the erasure of the given type.
+     *
+     * @param type The type.
+     * @return The erased type name.
+     */
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+}
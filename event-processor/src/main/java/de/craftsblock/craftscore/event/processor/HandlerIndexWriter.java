@@ -0,0 +1,123 @@
+package de.craftsblock.craftscore.event.processor;
+
+import java.util.List;
+
+/**
+ * Writes the source code of a generated handler index.
+ * <p>
+ * The generated class describes every handler method with a {@code HandlerMethod} and
+ * binds invokers through a nested factory. Every handler gets an anonymous invoker class
+ * of its own, which casts the event and calls the handler method directly, so that the
+ * call sites stay monomorphic and no method handles or lambdas are spun at runtime.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventHandlerProcessor
+ * @since 3.8.17
+ */
+final class HandlerIndexWriter {
+
+    private static final String PACKAGE = "de.craftsblock.craftscore.event";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private HandlerIndexWriter() {
+    }
+
+    /**
+     * Writes the source code of a handler index.
+     *
+     * @param packageName The package of the handler index.
+     * @param simpleName  The simple name of the handler index.
+     * @param adapterType The erased source name of the adapter class.
+     * @param handlers    The handler methods of the adapter class.
+     * @return The source code.
+     */
+    static String write(String packageName, String simpleName, String adapterType, List<Handler> handlers) {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("@javax.annotation.processing.Generated(\"").append(EventHandlerProcessor.class.getName()).append("\")\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(simpleName).append(" implements ")
+                .append(PACKAGE).append(".listener.HandlerIndex {\n\n");
+
+        source.append("    private static final java.util.List<").append(PACKAGE).append(".listener.HandlerMethod> HANDLERS = java.util.List.of(\n");
+        for (int i = 0; i < handlers.size(); i++) {
+            Handler handler = handlers.get(i);
+            source.append("            new ").append(PACKAGE).append(".listener.HandlerMethod(")
+                    .append(handler.eventType()).append(".class, ")
+                    .append(handler.declaringType()).append(".class, ")
+                    .append('"').append(handler.name()).append("\", ")
+                    .append(handler.key() != null ? handler.key() : "null").append(", ")
+                    .append(PACKAGE).append(".EventPriority.").append(handler.priority()).append(", ")
+                    .append(handler.ignoreWhenCancelled()).append(", ")
+                    .append("new Factory(").append(i).append("))")
+                    .append(i + 1 < handlers.size() ? ",\n" : "\n");
+        }
+        source.append("    );\n\n");
+
+        source.append("    @Override\n")
+                .append("    public Class<?> getAdapterType() {\n")
+                .append("        return ").append(adapterType).append(".class;\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public java.util.List<").append(PACKAGE).append(".listener.HandlerMethod> getHandlers() {\n")
+                .append("        return HANDLERS;\n")
+                .append("    }\n\n");
+
+        source.append("    private static final class Factory implements java.util.function.Function<Object, ")
+                .append(PACKAGE).append(".listener.EventInvoker> {\n\n")
+                .append("        private final int index;\n\n")
+                .append("        private Factory(int index) {\n")
+                .append("            this.index = index;\n")
+                .append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public ").append(PACKAGE).append(".listener.EventInvoker apply(Object owner) {\n")
+                .append("            final ").append(adapterType).append(" adapter = (").append(adapterType).append(") owner;\n")
+                .append("            switch (index) {\n");
+
+        for (int i = 0; i < handlers.size(); i++) {
+            Handler handler = handlers.get(i);
+            String target = handler.isStatic() ? handler.declaringType() : "adapter";
+
+            source.append("                case ").append(i).append(":\n")
+                    .append("                    return new ").append(PACKAGE).append(".listener.EventInvoker() {\n")
+                    .append("                        @Override\n")
+                    .append("                        public void invoke(").append(PACKAGE).append(".Event event) throws Throwable {\n")
+                    .append("                            ").append(target).append('.').append(handler.name())
+                    .append("((").append(handler.eventType()).append(") event);\n")
+                    .append("                        }\n")
+                    .append("                    };\n");
+        }
+
+        source.append("                default:\n")
+                .append("                    throw new IllegalStateException(\"Unknown handler \" + index);\n")
+                .append("            }\n")
+                .append("        }\n\n")
+                .append("    }\n\n")
+                .append("}\n");
+
+        return source.toString();
+    }
+
+    /**
+     * Describes a handler method for the generated code.
+     *
+     * @param eventType           The erased source name of the handled event type.
+     * @param declaringType       The erased source name of the class declaring the method.
+     * @param name                The name of the method.
+     * @param key                 The routing key as a string literal, or {@code null} if there is none.
+     * @param priority            The name of the priority constant.
+     * @param ignoreWhenCancelled Whether the handler ignores cancelled events.
+     * @param isStatic            Whether the method is static.
+     */
+    record Handler(String eventType, String declaringType, String name, String key,
+                   String priority, boolean ignoreWhenCancelled, boolean isStatic) {
+    }
+
+}
@@ -0,0 +1,157 @@
+package de.craftsblock.craftscore.event;
+
+import de.craftsblock.craftscore.event.listener.HandlerIndex;
+import de.craftsblock.craftscore.event.listener.HandlerMethod;
+import de.craftsblock.craftscore.utils.Utils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Caches the {@link HandlerMethod handler methods} of {@link ListenerAdapter} classes.
+ * <p>
+ * Scanning a class for {@link EventHandler} methods walks its entire class and
+ * interface hierarchy and creating the invokers for the found methods is even
+ * more expensive. Both is therefore done only once per adapter class, so that
+ * registering another instance of the same class only binds the cached handlers.
+ * <p>
+ * If the adapter class has been compiled with the event annotation processor, its
+ * generated {@link HandlerIndex} is used instead, which avoids the reflective scan
+ * and the creation of invokers altogether.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see HandlerMethod
+ * @since 3.8.17
+ */
+final class AdapterHandlers {
+
+    /**
+     * The suffix which is appended to the binary name of an adapter class to get
+     * the name of its generated {@link HandlerIndex}.
+     */
+    private static final String INDEX_SUFFIX = "$$EventHandlers";
+
+    private static final ClassValue<List<HandlerMethod>> HANDLERS = new ClassValue<>() {
+        @Override
+        protected List<HandlerMethod> computeValue(@NotNull Class<?> type) {
+            HandlerIndex index = indexOf(type);
+            return index != null ? index.getHandlers() : scan(type);
+        }
+    };
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private AdapterHandlers() {
+    }
+
+    /**
+     * Returns the handler methods of the given adapter class.
+     *
+     * @param type The adapter class.
+     * @return The cached handler methods.
+     */
+    static @NotNull @Unmodifiable List<HandlerMethod> of(@NotNull Class<?> type) {
+        return HANDLERS.get(type);
+    }
+
+    /**
+     * Returns the generated handler index of the given adapter class.
+     * <p>
+     * The index is a class named like the binary name of the adapter class with the
+     * {@value #INDEX_SUFFIX} suffix, which is loaded by the class loader of the adapter class.
+     *
+     * @param type The adapter class.
+     * @return The generated handler index, or {@code null} if there is none.
+     */
+    private static @Nullable HandlerIndex indexOf(@NotNull Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return null;
+        }
+
+        Class<?> indexType;
+        try {
+            indexType = Class.forName(type.getName() + INDEX_SUFFIX, true, loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+
+        if (!HandlerIndex.class.isAssignableFrom(indexType)) {
+            return null;
+        }
+
+        try {
+            HandlerIndex index = (HandlerIndex) indexType.getConstructor().newInstance();
+            return index.getAdapterType() == type ? index : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Scans the given adapter class for methods annotated with {@link EventHandler}
+     * and creates a {@link HandlerMethod} for each of them.
+     *
+     * @param type The adapter class to scan.
+     * @return The found handler methods.
+     */
+    private static List<HandlerMethod> scan(@NotNull Class<?> type) {
+        List<Method> methods = Utils.getMethodsByAnnotation(type, EventHandler.class);
+        List<HandlerMethod> handlers = new ArrayList<>(methods.size());
+
+        for (Method method : methods) {
+            try {
+                EventHandler eventHandler = method.getAnnotation(EventHandler.class);
+                handlers.add(new HandlerMethod(
+                        getEventTypeOrThrow(method), method,
+                        eventHandler.key().isEmpty() ? null : eventHandler.key(),
+                        eventHandler.priority(),
+                        eventHandler.ignoreWhenCancelled()
+                ));
+            } catch (Exception e) {
+                throw new RuntimeException("Could not resolve handler %s#%s(%s)!".formatted(
+                        method.getDeclaringClass().getSimpleName(),
+                        method.getName(),
+                        Arrays.toString(method.getParameterTypes())
+                ), e);
+            }
+        }
+
+        return List.copyOf(handlers);
+    }
+
+    /**
+     * Retrieves the event type for which the handler is listening.
+     * <p>
+     * The event type is either a subclass of {@link Event} or an interface, in which
+     * case the handler is called for all events implementing that interface.
+     *
+     * @param method The method which handles a given event type.
+     * @return The type of the event the handler listens for.
+     * @since 3.8.7
+     */
+    private static @NotNull Class<?> getEventTypeOrThrow(@NotNull Method method) {
+        String exception = "The method %s is provided with %s but does not include %s or an interface as the first argument!".formatted(
+                method.getName(), EventHandler.class.getName(), Event.class.getName()
+        );
+
+        if (method.getParameterCount() <= 0) {
+            throw new IllegalStateException(exception);
+        }
+
+        Class<?> parameter = method.getParameters()[0].getType();
+        if (!parameter.isInterface() && !Event.class.isAssignableFrom(parameter)) {
+            throw new IllegalStateException(exception);
+        }
+
+        return parameter;
+    }
+
+}
@@ -20,6 +20,11 @@ public abstract class Event {
 
     private boolean async = false;
 
+    /**
+     * The pooling state of this event, if it has been created by an {@link EventPool}.
+     */
+    EventPool.Lease lease;
+
     /**
      * Determines whether this event type is allowed to be executed asynchronously.
      * <p>
@@ -65,6 +70,28 @@ public abstract class Event {
         this.async = true;
     }
 
+    /**
+     * Clears the asynchronous mark of this event, before it is reused by an {@link EventPool}.
+     *
+     * @since 3.8.17
+     */
+    void resetAsync() {
+        this.async = false;
+    }
+
+    /**
+     * Ensures that this event has not been released to its {@link EventPool}, if it is pooled.
+     *
+     * @throws IllegalStateException If the event has already been released.
+     * @since 3.8.17
+     */
+    void ensureLeased() {
+        EventPool.Lease lease = this.lease;
+        if (lease != null) {
+            lease.ensureLeased(this);
+        }
+    }
+
     /**
      * Returns whether this event is currently being executed asynchronously.
      * <p>
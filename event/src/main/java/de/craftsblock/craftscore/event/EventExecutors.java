@@ -0,0 +1,362 @@
+package de.craftsblock.craftscore.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Factory for the {@link ExecutorService executor services} used to dispatch
+ * events asynchronously.
+ * <p>
+ * On Java 21 and newer, asynchronous listeners are executed on virtual threads by
+ * default. Blocking listeners then only park their virtual thread instead of pinning
+ * a platform thread, so tens of thousands of events can be in flight at the same time.
+ * On older runtimes a cached thread pool is used instead. The virtual thread executor
+ * is resolved at runtime, so this library still runs on its Java baseline.
+ * <p>
+ * In addition, any executor service can be {@link #bounded(ExecutorService, int) bounded}
+ * to a maximum number of concurrently running listeners.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ListenerRegistry
+ * @since 3.8.17
+ */
+public final class EventExecutors {
+
+    private static final @Nullable MethodHandle VIRTUAL_THREAD_EXECUTOR = resolveVirtualThreadExecutor();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private EventExecutors() {
+    }
+
+    /**
+     * Checks whether the current runtime supports virtual threads.
+     *
+     * @return {@code true} if virtual threads are supported, {@code false} otherwise.
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Creates the default executor service for asynchronous event dispatching, which
+     * is a virtual thread per task executor if supported by the runtime and a cached
+     * thread pool otherwise.
+     *
+     * @return The created executor service.
+     */
+    public static @NotNull ExecutorService newDefaultExecutor() {
+        if (isVirtualThreadsSupported()) {
+            return newVirtualThreadExecutor();
+        }
+
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Creates an executor service which starts a new virtual thread for each task.
+     *
+     * @return The created executor service.
+     * @throws UnsupportedOperationException If the runtime does not support virtual threads.
+     */
+    public static @NotNull ExecutorService newVirtualThreadExecutor() {
+        if (VIRTUAL_THREAD_EXECUTOR == null) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer!");
+        }
+
+        try {
+            return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create the virtual thread executor!", e);
+        }
+    }
+
+    /**
+     * Wraps the given executor service, so that at most the given number of tasks
+     * are running on it at the same time. Further tasks are queued without blocking
+     * the submitting thread and are started as soon as a running task has finished.
+     * <p>
+     * Shutting down the returned executor service rejects new tasks, while the queued
+     * tasks are still started. The given executor service is shut down once all of
+     * them have finished.
+     *
+     * @param delegate       The executor service which runs the tasks.
+     * @param maxConcurrency The maximum number of concurrently running tasks.
+     * @return The bounded executor service.
+     * @throws IllegalArgumentException If the maximum concurrency is not positive.
+     */
+    public static @NotNull ExecutorService bounded(@NotNull ExecutorService delegate, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The maximum concurrency must be positive, but was %s!".formatted(maxConcurrency));
+        }
+
+        return new BoundedExecutorService(delegate, maxConcurrency);
+    }
+
+    /**
+     * Resolves the factory method for virtual thread per task executors, if the
+     * runtime supports virtual threads without preview features.
+     *
+     * @return The method handle of the factory method, or {@code null} if unsupported.
+     */
+    private static @Nullable MethodHandle resolveVirtualThreadExecutor() {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                    Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * An {@link ExecutorService} limiting the number of concurrently running
+     * tasks on a delegate executor service.
+     * <p>
+     * Shutting down this executor service only stops it from accepting new tasks.
+     * Tasks which are still queued are started as usual, and the delegate is shut down
+     * once the last of them has finished.
+     */
+    private static final class BoundedExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final int maxConcurrency;
+
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger running = new AtomicInteger();
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile boolean shutdown = false;
+
+        /**
+         * Creates a new bounded executor service.
+         *
+         * @param delegate       The executor service which runs the tasks.
+         * @param maxConcurrency The maximum number of concurrently running tasks.
+         */
+        private BoundedExecutorService(ExecutorService delegate, int maxConcurrency) {
+            this.delegate = delegate;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @param task {@inheritDoc}
+         */
+        @Override
+        public void execute(@NotNull Runnable task) {
+            lock.lock();
+            try {
+                if (shutdown || delegate.isShutdown()) {
+                    throw new RejectedExecutionException("The executor service has been shut down!");
+                }
+
+                pending.add(task);
+            } finally {
+                lock.unlock();
+            }
+
+            RejectedExecutionException rejection = drain(task);
+            if (rejection != null) {
+                throw rejection;
+            }
+        }
+
+        /**
+         * Starts pending tasks on the delegate as long as the maximum concurrency
+         * has not been reached. Called whenever a task is added or has finished,
+         * so that no pending task can be left behind.
+         * <p>
+         * If the delegate rejects a task, the rejection is reported to the caller if the task
+         * is its own. Any other task is run on the current thread instead, as there may be no
+         * running task left which would start it later. Every polled task is therefore either
+         * started or rejected, and no task can remain queued without ever being started.
+         *
+         * @param own The task submitted by the caller, or {@code null} if called by a finished task.
+         * @return The rejection of the task of the caller, or {@code null} if it has not been rejected.
+         */
+        private @Nullable RejectedExecutionException drain(@Nullable Runnable own) {
+            RejectedExecutionException rejection = null;
+            while (!pending.isEmpty()) {
+                int current = running.get();
+                if (current >= maxConcurrency) {
+                    break;
+                }
+
+                if (!running.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+
+                Runnable task = pending.poll();
+                if (task == null) {
+                    running.decrementAndGet();
+                    continue;
+                }
+
+                try {
+                    delegate.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            running.decrementAndGet();
+                            drain(null);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    if (task == own) {
+                        running.decrementAndGet();
+                        rejection = e;
+                        continue;
+                    }
+
+                    runRejected(task);
+                }
+            }
+
+            if (shutdown) {
+                tryTerminate();
+            }
+
+            return rejection;
+        }
+
+        /**
+         * Runs a task which has been rejected by the delegate on the current thread.
+         * Exceptions thrown by the task are passed to the uncaught exception handler
+         * of the current thread, as if the task had been run by the delegate.
+         *
+         * @param task The rejected task, which has already been counted as running.
+         */
+        private void runRejected(@NotNull Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        /**
+         * Shuts the delegate down if this executor service has been shut down
+         * and neither a queued nor a running task is left. Tasks rejected by the
+         * delegate never stay queued, see {@link #drain(Runnable)}, so the queue
+         * always empties once the running tasks have finished.
+         */
+        private void tryTerminate() {
+            lock.lock();
+            try {
+                if (!shutdown || terminated.getCount() == 0 || !pending.isEmpty() || running.get() != 0) {
+                    return;
+                }
+
+                delegate.shutdown();
+                terminated.countDown();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void shutdown() {
+            lock.lock();
+            try {
+                shutdown = true;
+            } finally {
+                lock.unlock();
+            }
+
+            tryTerminate();
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@inheritDoc}
+         */
+        @Override
+        public @NotNull List<Runnable> shutdownNow() {
+            List<Runnable> tasks = new ArrayList<>();
+
+            lock.lock();
+            try {
+                shutdown = true;
+
+                Runnable task;
+                while ((task = pending.poll()) != null) {
+                    tasks.add(task);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Tasks removed from the delegate never finish, so termination is left to the delegate
+            tasks.addAll(delegate.shutdownNow());
+            terminated.countDown();
+            return tasks;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@inheritDoc}
+         */
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@inheritDoc}
+         */
+        @Override
+        public boolean isTerminated() {
+            return terminated.getCount() == 0 && delegate.isTerminated();
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @param timeout {@inheritDoc}
+         * @param unit    {@inheritDoc}
+         * @return {@inheritDoc}
+         * @throws InterruptedException {@inheritDoc}
+         */
+        @Override
+        public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            if (!terminated.await(timeout, unit)) {
+                return false;
+            }
+
+            return delegate.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+    }
+
+}
@@ -53,4 +53,16 @@ public @interface EventHandler {
      */
     boolean ignoreWhenCancelled() default false;
 
+    /**
+     * Specifies the routing key this handler is restricted to.
+     * <p>
+     * If set, the handler is only called for {@link Routable} events whose
+     * routing key is equal to this string. By default, the handler is called
+     * for all events regardless of their routing key.
+     *
+     * @return The routing key of this handler, or an empty string to receive all events.
+     * @since 3.8.17
+     */
+    String key() default "";
+
 }
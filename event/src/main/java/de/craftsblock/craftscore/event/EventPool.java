@@ -0,0 +1,318 @@
+package de.craftsblock.craftscore.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Cleaner;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A pool of {@link ReusableEvent reusable} instances of a single event type.
+ * <p>
+ * {@link #acquire()} hands out an idle instance, or creates a new one if the pool is
+ * empty. Releasing an instance resets it and keeps it for the next acquisition, up to
+ * the capacity of the pool. Neither acquiring nor releasing an instance allocates
+ * anything once the pool has been warmed up, so dispatching a pooled event synchronously
+ * does not produce any garbage.
+ * <p>
+ * While leak detection is enabled, the pool remembers where each instance has been
+ * acquired and reports instances which become unreachable without having been released.
+ * As this records a stack trace for every acquisition, it is meant for debugging only.
+ * It is enabled for all new pools by the system property
+ * {@code craftscore.event.pool.leakDetection}.
+ *
+ * <pre>{@code
+ * private static final EventPool<PlayerMoveEvent> MOVE_EVENTS = new EventPool<>(PlayerMoveEvent::new, 256);
+ * }</pre>
+ *
+ * @param <T> The type of the pooled events.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ReusableEvent
+ * @since 3.8.17
+ */
+public final class EventPool<T extends Event & ReusableEvent> {
+
+    private static final boolean LEAK_DETECTION = Boolean.getBoolean("craftscore.event.pool.leakDetection");
+
+    private final Supplier<? extends T> factory;
+    private final Event[] idle;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int size = 0;
+
+    private volatile @Nullable Consumer<Throwable> leakReporter = LEAK_DETECTION ? EventPool::uncaught : null;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param factory  The factory creating new instances if the pool is empty.
+     * @param capacity The maximum number of idle instances kept by the pool.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public EventPool(@NotNull Supplier<? extends T> factory, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive, but was %s!".formatted(capacity));
+        }
+
+        this.factory = factory;
+        this.idle = new Event[capacity];
+    }
+
+    /**
+     * Acquires an instance from this pool, creating a new one if the pool is empty.
+     * The instance must be released again once it is no longer needed.
+     *
+     * @return The acquired instance.
+     * @throws IllegalStateException If the factory returned an instance which is already pooled.
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull T acquire() {
+        T event = null;
+
+        lock.lock();
+        try {
+            if (size > 0) {
+                event = (T) idle[--size];
+                idle[size] = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (event == null) {
+            event = factory.get();
+            if (event.lease != null) {
+                throw new IllegalStateException("The factory returned the already pooled event %s!".formatted(event));
+            }
+
+            event.lease = new Lease(this);
+        }
+
+        Lease lease = event.lease;
+        Consumer<Throwable> reporter = leakReporter;
+        if (reporter != null) {
+            lease.track(event, reporter);
+        }
+
+        lease.state = Lease.LEASED;
+
+        return event;
+    }
+
+    /**
+     * Resets a released instance and keeps it for the next acquisition, if the pool is not full.
+     *
+     * @param event The released instance.
+     */
+    private void recycle(@NotNull Event event) {
+        ((ReusableEvent) event).reset();
+        event.resetAsync();
+
+        if (event instanceof Cancellable cancellable) {
+            cancellable.setCancelled(false);
+        }
+
+        lock.lock();
+        try {
+            if (size < idle.length) {
+                idle[size++] = event;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a reusable event back to the pool it has been acquired from.
+     *
+     * @param reusable The event to release.
+     * @throws IllegalStateException If the event has already been released.
+     * @see ReusableEvent#close()
+     */
+    static void release(@NotNull ReusableEvent reusable) {
+        Event event = (Event) reusable;
+        Lease lease = event.lease;
+        if (lease == null) {
+            return;
+        }
+
+        if (!Lease.STATE.compareAndSet(lease, Lease.LEASED, Lease.IDLE)) {
+            throw new IllegalStateException("The pooled event %s has already been released!".formatted(event));
+        }
+
+        lease.untrack();
+        lease.pool.recycle(event);
+    }
+
+    /**
+     * Enables or disables the leak detection of this pool. Only instances acquired while
+     * the leak detection is enabled are tracked.
+     *
+     * @param reporter The callback receiving an exception pointing to the acquisition of each
+     *                 leaked instance, or {@code null} to disable the leak detection.
+     * @return This pool for chaining.
+     */
+    public @NotNull EventPool<T> setLeakDetection(@Nullable Consumer<Throwable> reporter) {
+        this.leakReporter = reporter;
+        return this;
+    }
+
+    /**
+     * Returns whether the leak detection of this pool is enabled.
+     *
+     * @return {@code true} if leaks are reported, otherwise {@code false}.
+     */
+    public boolean isLeakDetection() {
+        return leakReporter != null;
+    }
+
+    /**
+     * Returns the number of idle instances kept by this pool.
+     *
+     * @return The number of idle instances.
+     */
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximum number of idle instances kept by this pool.
+     *
+     * @return The capacity of this pool.
+     */
+    public int getCapacity() {
+        return idle.length;
+    }
+
+    /**
+     * Passes a leak to the uncaught exception handler of the current thread.
+     *
+     * @param leak The exception pointing to the acquisition of the leaked instance.
+     */
+    private static void uncaught(@NotNull Throwable leak) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, leak);
+    }
+
+    /**
+     * The pooling state of a single instance, which is created together with the instance.
+     */
+    static final class Lease {
+
+        private static final int IDLE = 0;
+        private static final int LEASED = 1;
+
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Lease.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final EventPool<?> pool;
+        private volatile int state = IDLE;
+        private @Nullable Leak leak;
+
+        /**
+         * Creates a new lease.
+         *
+         * @param pool The pool the instance belongs to.
+         */
+        private Lease(@NotNull EventPool<?> pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Ensures that the instance has not been released.
+         *
+         * @param event The instance.
+         * @throws IllegalStateException If the instance has been released.
+         */
+        void ensureLeased(@NotNull Event event) {
+            if (state != LEASED) {
+                throw new IllegalStateException("The pooled event %s has already been released!".formatted(event));
+            }
+        }
+
+        /**
+         * Starts tracking the instance for leaks.
+         *
+         * @param event    The instance.
+         * @param reporter The callback receiving the leak.
+         */
+        private void track(@NotNull Event event, @NotNull Consumer<Throwable> reporter) {
+            IllegalStateException origin = new IllegalStateException(
+                    "The pooled event %s became unreachable without being released, it has been acquired here".formatted(
+                            event.getClass().getName()
+                    ));
+
+            Leak leak = new Leak(origin, reporter);
+            leak.cleanable = Leak.CLEANER.register(event, leak);
+            this.leak = leak;
+        }
+
+        /**
+         * Stops tracking the instance for leaks.
+         */
+        private void untrack() {
+            Leak leak = this.leak;
+            if (leak == null) {
+                return;
+            }
+
+            this.leak = null;
+            leak.released = true;
+            leak.cleanable.clean();
+        }
+
+    }
+
+    /**
+     * A tracked acquisition of an instance, which is reported once the instance
+     * became unreachable without having been released.
+     */
+    private static final class Leak implements Runnable {
+
+        private static final Cleaner CLEANER = Cleaner.create();
+
+        private final Throwable origin;
+        private final Consumer<Throwable> reporter;
+        private volatile boolean released = false;
+        private Cleaner.Cleanable cleanable;
+
+        /**
+         * Creates a new tracked acquisition.
+         *
+         * @param origin   The exception pointing to the acquisition.
+         * @param reporter The callback receiving the leak.
+         */
+        private Leak(@NotNull Throwable origin, @NotNull Consumer<Throwable> reporter) {
+            this.origin = origin;
+            this.reporter = reporter;
+        }
+
+        /**
+         * Reports the leak, unless the instance has been released.
+         */
+        @Override
+        public void run() {
+            if (!released) {
+                reporter.accept(origin);
+            }
+        }
+
+    }
+
+}
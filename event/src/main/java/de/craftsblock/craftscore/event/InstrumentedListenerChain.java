@@ -0,0 +1,119 @@
+package de.craftsblock.craftscore.event;
+
+import de.craftsblock.craftscore.event.listener.InstrumentedListener;
+import de.craftsblock.craftscore.event.listener.Listener;
+import de.craftsblock.craftscore.event.metrics.EventMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A {@link ListenerChain} which reports its dispatches and the invocations of
+ * its listeners to an {@link EventMetrics} implementation.
+ * <p>
+ * Each listener of the plan is wrapped in an {@link InstrumentedListener} while
+ * baking, so that both the synchronous and the asynchronous dispatch are measured
+ * without any additional lookups on the hot path.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventMetrics
+ * @since 3.8.17
+ */
+final class InstrumentedListenerChain extends ListenerChain {
+
+    private final EventMetrics.DispatchRecorder recorder;
+
+    /**
+     * Creates a new instrumented dispatch plan from the given, already ordered listeners.
+     *
+     * @param ordered   The listeners in the order in which they should be executed.
+     * @param types     The event types whose listeners have been collected into this plan.
+     * @param version   The version of the {@link ListenerSnapshot} this plan was baked against.
+     * @param eventType The concrete event class of this plan.
+     * @param metrics   The metrics to report to.
+     */
+    InstrumentedListenerChain(@NotNull Listener[] ordered, @NotNull Class<?>[] types, long version,
+                              @NotNull Class<? extends Event> eventType, @NotNull EventMetrics metrics) {
+        super(instrument(ordered, metrics), types, version);
+        this.recorder = metrics.dispatchRecorder(eventType);
+    }
+
+    /**
+     * Creates a copy of the given plan which is stamped with another snapshot version.
+     *
+     * @param chain   The plan to copy.
+     * @param version The new snapshot version.
+     */
+    private InstrumentedListenerChain(@NotNull InstrumentedListenerChain chain, long version) {
+        super(chain, version);
+        this.recorder = chain.recorder;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@inheritDoc}
+     */
+    @Override
+    void call(@NotNull Event event) {
+        recorder.record();
+        super.call(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every event of the batch is recorded as a dispatch of its own.
+     *
+     * @param events {@inheritDoc}
+     */
+    @Override
+    void callAll(@NotNull List<Event> events) {
+        for (int i = 0; i < events.size(); i++) {
+            recorder.record();
+        }
+
+        super.callAll(events);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    @NotNull Stage[] stagesFor(@NotNull Event event) {
+        recorder.record();
+        return super.stagesFor(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param version {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    @NotNull ListenerChain withVersion(long version) {
+        return new InstrumentedListenerChain(this, version);
+    }
+
+    /**
+     * Wraps each of the given listeners in an {@link InstrumentedListener}.
+     *
+     * @param listeners The listeners to wrap.
+     * @param metrics   The metrics to report to.
+     * @return The wrapped listeners.
+     */
+    private static Listener[] instrument(@NotNull Listener[] listeners, @NotNull EventMetrics metrics) {
+        Listener[] instrumented = new Listener[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            instrumented[i] = new InstrumentedListener(listeners[i], metrics.listenerRecorder(listeners[i]));
+        }
+
+        return instrumented;
+    }
+
+}
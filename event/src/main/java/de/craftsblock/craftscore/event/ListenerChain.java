@@ -0,0 +1,451 @@
+package de.craftsblock.craftscore.event;
+
+import de.craftsblock.craftscore.event.listener.Listener;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, baked dispatch plan for a single concrete event type.
+ * <p>
+ * The plan holds all listeners which are interested in the event type in their
+ * final execution order and invokes them in a flat loop. In contrast to a linked
+ * chain of listeners this keeps the stack depth constant, no matter how many
+ * listeners are registered, and allows the JIT to inline the dispatch loop.
+ * <p>
+ * Listeners restricted to a routing key are indexed by their key. Events which are
+ * {@link Routable} only visit the listeners without a key and the listeners of their
+ * own key, which are merged into their execution order on first use of the key.
+ * <p>
+ * For asynchronous dispatch the listeners are additionally split into stages, one
+ * per {@link EventPriority} which actually has listeners, so that the registry does
+ * not have to regroup the listeners for every event.
+ * <p>
+ * Batches of events are dispatched listener by listener, so that every listener is
+ * invoked once with all events of the batch it is interested in.
+ * <p>
+ * Each plan remembers the {@link ListenerSnapshot} version it was baked against
+ * and the event types it was built from, so that the registry can cheaply detect
+ * whether the plan is still valid for a newer snapshot.
+ * <p>
+ * While metrics are enabled, the registry bakes an {@link InstrumentedListenerChain}
+ * instead. Plain plans therefore never contain any instrumentation.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ListenerRegistry
+ * @since 3.8.17
+ */
+sealed class ListenerChain permits InstrumentedListenerChain {
+
+    private final Listener[] listeners;
+    private final int[] ranks;
+    private final Stage[] stages;
+    private final Map<Object, Route> routes;
+    private final Class<?>[] types;
+    private final long version;
+    private final boolean ignoresCancelled;
+
+    /**
+     * Creates a new dispatch plan from the given, already ordered listeners.
+     *
+     * @param ordered The listeners in the order in which they should be executed.
+     * @param types   The event types whose listeners have been collected into this plan.
+     * @param version The version of the {@link ListenerSnapshot} this plan was baked against.
+     */
+    ListenerChain(@NotNull Listener[] ordered, @NotNull Class<?>[] types, long version) {
+        this.types = types;
+        this.version = version;
+
+        Listener[] unkeyed = new Listener[ordered.length];
+        int[] unkeyedRanks = new int[ordered.length];
+        int count = 0;
+        Map<Object, List<Integer>> keyed = new HashMap<>();
+
+        boolean ignoresCancelled = false;
+        for (int rank = 0; rank < ordered.length; rank++) {
+            Listener listener = ordered[rank];
+            ignoresCancelled |= listener.isIgnoreWhenCancelled();
+
+            Object key = listener.getRoutingKey();
+            if (key == null) {
+                unkeyed[count] = listener;
+                unkeyedRanks[count++] = rank;
+                continue;
+            }
+
+            keyed.computeIfAbsent(key, k -> new ArrayList<>()).add(rank);
+        }
+
+        this.listeners = count == unkeyed.length ? unkeyed : Arrays.copyOf(unkeyed, count);
+        this.ranks = count == unkeyedRanks.length ? unkeyedRanks : Arrays.copyOf(unkeyedRanks, count);
+        this.stages = split(this.listeners);
+        this.ignoresCancelled = ignoresCancelled;
+
+        if (keyed.isEmpty()) {
+            this.routes = Map.of();
+            return;
+        }
+
+        Map<Object, Route> routes = new HashMap<>(keyed.size());
+        keyed.forEach((key, list) -> {
+            int[] ranks = list.stream().mapToInt(Integer::intValue).toArray();
+            Listener[] listeners = new Listener[ranks.length];
+            for (int i = 0; i < ranks.length; i++) {
+                listeners[i] = ordered[ranks[i]];
+            }
+
+            routes.put(key, new Route(listeners, ranks));
+        });
+        this.routes = routes;
+    }
+
+    /**
+     * Creates a copy of the given plan which is stamped with another snapshot version.
+     *
+     * @param chain   The plan to copy.
+     * @param version The new snapshot version.
+     */
+    ListenerChain(@NotNull ListenerChain chain, long version) {
+        this.listeners = chain.listeners;
+        this.ranks = chain.ranks;
+        this.stages = chain.stages;
+        this.routes = chain.routes;
+        this.types = chain.types;
+        this.version = version;
+        this.ignoresCancelled = chain.ignoresCancelled;
+    }
+
+    /**
+     * Invokes all listeners of this plan with the given event.
+     * <p>
+     * If the event is {@link Cancellable} and has been cancelled, listeners
+     * marked to ignore cancelled events will be skipped. The cancellation
+     * check is only performed if at least one listener ignores cancelled events.
+     *
+     * @param event The event to dispatch.
+     */
+    void call(@NotNull Event event) {
+        final Listener[] listeners = listenersFor(event);
+
+        if (!ignoresCancelled || !(event instanceof Cancellable cancellable)) {
+            for (Listener listener : listeners) {
+                listener.call(event);
+            }
+            return;
+        }
+
+        for (Listener listener : listeners) {
+            if (listener.isIgnoreWhenCancelled() && cancellable.isCancelled()) {
+                continue;
+            }
+
+            listener.call(event);
+        }
+    }
+
+    /**
+     * Invokes all listeners of this plan with a batch of events of the plan's event type.
+     * <p>
+     * Each listener receives all events of the batch before the next listener is invoked,
+     * so every single event still visits its listeners in their execution order. Events
+     * carrying different routing keys are split into one batch per set of interested
+     * listeners. Listeners marked to ignore cancelled events only receive the events which
+     * have not been cancelled by the time it is their turn.
+     *
+     * @param events The events to dispatch, which must not be modified.
+     * @since 3.8.17
+     */
+    void callAll(@NotNull List<Event> events) {
+        if (routes.isEmpty()) {
+            callAll(listeners, events);
+            return;
+        }
+
+        // The listener arrays are shared per routing key, so they identify each batch
+        Map<Listener[], List<Event>> batches = new LinkedHashMap<>();
+        for (Event event : events) {
+            batches.computeIfAbsent(listenersFor(event), listeners -> new ArrayList<>()).add(event);
+        }
+
+        if (batches.size() == 1) {
+            callAll(batches.keySet().iterator().next(), events);
+            return;
+        }
+
+        batches.forEach((listeners, batch) -> callAll(listeners, Collections.unmodifiableList(batch)));
+    }
+
+    /**
+     * Invokes the given listeners with a batch of events, one listener after another.
+     *
+     * @param listeners The listeners in their execution order.
+     * @param events    The events to dispatch.
+     * @since 3.8.17
+     */
+    private void callAll(@NotNull Listener[] listeners, @NotNull List<Event> events) {
+        for (Listener listener : listeners) {
+            if (!ignoresCancelled || !listener.isIgnoreWhenCancelled()) {
+                listener.callAll(events);
+                continue;
+            }
+
+            List<Event> active = uncancelled(events);
+            if (!active.isEmpty()) {
+                listener.callAll(active);
+            }
+        }
+    }
+
+    /**
+     * Returns the events of the given batch which have not been cancelled.
+     *
+     * @param events The batch of events.
+     * @return The batch itself if no event has been cancelled, otherwise a new list.
+     * @since 3.8.17
+     */
+    private static List<Event> uncancelled(@NotNull List<Event> events) {
+        List<Event> active = null;
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            boolean cancelled = event instanceof Cancellable cancellable && cancellable.isCancelled();
+
+            if (cancelled && active == null) {
+                active = new ArrayList<>(events.subList(0, i));
+            } else if (!cancelled && active != null) {
+                active.add(event);
+            }
+        }
+
+        return active == null ? events : Collections.unmodifiableList(active);
+    }
+
+    /**
+     * Returns the listeners of this plan which are interested in the given event,
+     * in their execution order.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @param event The event to be dispatched.
+     * @return The ordered listeners.
+     */
+    @NotNull Listener[] listenersFor(@NotNull Event event) {
+        if (routes.isEmpty() || !(event instanceof Routable routable)) {
+            return listeners;
+        }
+
+        Object key = routable.getRoutingKey();
+        if (key == null) {
+            return listeners;
+        }
+
+        Route route = routes.get(key);
+        return route != null ? route.merge(listeners, ranks) : listeners;
+    }
+
+    /**
+     * Returns the listeners of this plan which are interested in the given event,
+     * split into one stage per {@link EventPriority} in their execution order.
+     * Priorities without any listeners do not have a stage.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @param event The event to be dispatched.
+     * @return The stages of listeners.
+     * @since 3.8.17
+     */
+    @NotNull Stage[] stagesFor(@NotNull Event event) {
+        if (routes.isEmpty() || !(event instanceof Routable routable)) {
+            return stages;
+        }
+
+        Object key = routable.getRoutingKey();
+        if (key == null) {
+            return stages;
+        }
+
+        Route route = routes.get(key);
+        return route != null ? route.stages(listeners, ranks) : stages;
+    }
+
+    /**
+     * Returns the version of the {@link ListenerSnapshot} this plan was baked against.
+     *
+     * @return The snapshot version.
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * Checks whether this plan still reflects the listeners of the given snapshot,
+     * which is the case if none of the event types this plan was built from has
+     * been modified and the plans have not been invalidated since the plan was baked.
+     *
+     * @param snapshot The snapshot to check against.
+     * @return {@code true} if the plan is still valid, {@code false} otherwise.
+     */
+    boolean isValidFor(@NotNull ListenerSnapshot snapshot) {
+        if (snapshot.invalidated() > version) {
+            return false;
+        }
+
+        for (Class<?> type : types) {
+            if (snapshot.lastModified(type) > version) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a copy of this plan stamped with the given snapshot version.
+     *
+     * @param version The new snapshot version.
+     * @return The restamped plan.
+     */
+    @NotNull ListenerChain withVersion(long version) {
+        return new ListenerChain(this, version);
+    }
+
+    /**
+     * Splits the given listeners, which are ordered by priority, into one
+     * stage per priority.
+     *
+     * @param listeners The listeners ordered by priority.
+     * @return The stages of listeners.
+     */
+    private static Stage[] split(Listener[] listeners) {
+        List<Stage> stages = new ArrayList<>();
+
+        int start = 0;
+        for (int i = 1; i <= listeners.length; i++) {
+            if (i < listeners.length && listeners[i].getPriority() == listeners[start].getPriority()) {
+                continue;
+            }
+
+            stages.add(Stage.of(Arrays.copyOfRange(listeners, start, i)));
+            start = i;
+        }
+
+        return stages.toArray(Stage[]::new);
+    }
+
+    /**
+     * The listeners of a single routing key together with their position
+     * in the execution order of the whole plan.
+     */
+    private static final class Route {
+
+        private final Listener[] listeners;
+        private final int[] ranks;
+        private volatile Listener[] merged;
+        private volatile Stage[] stages;
+
+        /**
+         * Creates a new route.
+         *
+         * @param listeners The listeners of the routing key in their execution order.
+         * @param ranks     The position of each listener in the execution order of the plan.
+         */
+        private Route(Listener[] listeners, int[] ranks) {
+            this.listeners = listeners;
+            this.ranks = ranks;
+        }
+
+        /**
+         * Returns the listeners of this route merged with the given listeners without
+         * a routing key. The result is computed once and cached afterwards.
+         *
+         * @param unkeyed      The listeners without a routing key.
+         * @param unkeyedRanks The position of each listener without a routing key.
+         * @return The merged listeners in their execution order.
+         */
+        private Listener[] merge(Listener[] unkeyed, int[] unkeyedRanks) {
+            Listener[] merged = this.merged;
+            if (merged != null) {
+                return merged;
+            }
+
+            merged = new Listener[unkeyed.length + listeners.length];
+            int i = 0, j = 0, k = 0;
+            while (i < unkeyed.length && j < listeners.length) {
+                merged[k++] = unkeyedRanks[i] < ranks[j] ? unkeyed[i++] : listeners[j++];
+            }
+
+            System.arraycopy(unkeyed, i, merged, k, unkeyed.length - i);
+            System.arraycopy(listeners, j, merged, k + unkeyed.length - i, listeners.length - j);
+
+            return this.merged = merged;
+        }
+
+        /**
+         * Returns the merged listeners of this route split into one stage per priority.
+         * The result is computed once and cached afterwards.
+         *
+         * @param unkeyed      The listeners without a routing key.
+         * @param unkeyedRanks The position of each listener without a routing key.
+         * @return The stages of the merged listeners.
+         */
+        private Stage[] stages(Listener[] unkeyed, int[] unkeyedRanks) {
+            Stage[] stages = this.stages;
+            if (stages != null) {
+                return stages;
+            }
+
+            return this.stages = split(merge(unkeyed, unkeyedRanks));
+        }
+
+    }
+
+    /**
+     * The listeners of a single {@link EventPriority} which are executed
+     * concurrently during asynchronous dispatch.
+     *
+     * @param listeners     All listeners of the stage.
+     * @param whenCancelled The listeners of the stage which do not ignore cancelled events.
+     */
+    record Stage(@NotNull Listener[] listeners, @NotNull Listener[] whenCancelled) {
+
+        /**
+         * Creates a stage from the given listeners.
+         *
+         * @param listeners The listeners of the stage.
+         * @return The created stage.
+         */
+        private static Stage of(Listener[] listeners) {
+            Listener[] whenCancelled = Arrays.stream(listeners)
+                    .filter(listener -> !listener.isIgnoreWhenCancelled())
+                    .toArray(Listener[]::new);
+
+            return new Stage(listeners, whenCancelled.length == listeners.length ? listeners : whenCancelled);
+        }
+
+        /**
+         * Returns the listeners of this stage which should be executed for the given event
+         * in its current state. If the event is {@link Cancellable} and has been cancelled,
+         * listeners marked to ignore cancelled events are left out.
+         * <p>
+         * The returned array is shared and must not be modified.
+         *
+         * @param event The event to be dispatched.
+         * @return The listeners to execute, which may be empty.
+         */
+        @NotNull Listener[] select(@NotNull Event event) {
+            if (whenCancelled != listeners && event instanceof Cancellable cancellable && cancellable.isCancelled()) {
+                return whenCancelled;
+            }
+
+            return listeners;
+        }
+
+    }
+
+}
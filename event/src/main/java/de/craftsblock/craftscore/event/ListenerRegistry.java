@@ -1,17 +1,20 @@
 package de.craftsblock.craftscore.event;
 
 import de.craftsblock.craftscore.event.listener.DirectListener;
+import de.craftsblock.craftscore.event.listener.HandlerMethod;
 import de.craftsblock.craftscore.event.listener.Listener;
 import de.craftsblock.craftscore.event.listener.ReflectionListener;
+import de.craftsblock.craftscore.event.metrics.EventMetrics;
 import de.craftsblock.craftscore.event.queue.CallQueue;
-import de.craftsblock.craftscore.utils.Utils;
+import de.craftsblock.craftscore.event.watchdog.ListenerWatchdog;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * The {@link ListenerRegistry} class is responsible for managing event listeners
@@ -25,6 +28,11 @@ import java.util.function.Consumer;
  * <p>The registry uses reflection to detect and invoke methods annotated with
  * {@link EventHandler} in the provided listener objects.</p>
  *
+ * <p>Registering and unregistering listeners is thread-safe. Each change publishes
+ * a new immutable snapshot of all listeners, from which the dispatch plans are baked
+ * lazily. Dispatching an event therefore never takes a lock and never observes a
+ * partially applied change.</p>
+ *
  * <p><b>Inspired by:</b> <a href="https://hub.spigotmc.org/stash/projects/SPIGOT/repos/bukkit/browse/src/main/java/org/bukkit/event">Bukkit's Event System</a></p>
  *
  * @author Philipp Maywald
@@ -34,37 +42,50 @@ import java.util.function.Consumer;
 public class ListenerRegistry {
 
     private static final ListenerRegistry GLOBAL = new ListenerRegistry();
-    private static final EventPriority[] PRIORITIES;
-    private static final EventPriority[] REVERSED_PRIORITIES;
-
-    static {
-        List<EventPriority> priorities = Arrays.asList(EventPriority.values());
-        PRIORITIES = priorities.toArray(EventPriority[]::new);
-
-        Collections.reverse(priorities);
-        REVERSED_PRIORITIES = priorities.toArray(EventPriority[]::new);
-    }
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
+    private static final ClassValue<Class<?>[]> HIERARCHIES = new ClassValue<>() {
+        @Override
+        protected Class<?>[] computeValue(@NotNull Class<?> type) {
+            return resolveHierarchy(type);
+        }
+    };
 
     private final @NotNull ExecutorService executorService;
     private final @NotNull CallQueue callQueue;
 
     private final Set<ListenerAdapter> listenerIndex = ConcurrentHashMap.newKeySet();
 
-    private final Map<Class<? extends Event>, Map<EventPriority, List<Listener>>> registeredListeners = new HashMap<>();
-    private final ClassValue<Listener> bakedListeners = new ClassValue<>() {
+    private final AtomicReference<ListenerSnapshot> registeredListeners = new AtomicReference<>(ListenerSnapshot.EMPTY);
+    private final ClassValue<AtomicReference<ListenerChain>> bakedListeners = new ClassValue<>() {
         @Override
-        @SuppressWarnings("unchecked")
-        protected Listener computeValue(@NotNull Class<?> type) {
-            return bake((Class<? extends Event>) type);
+        protected AtomicReference<ListenerChain> computeValue(@NotNull Class<?> type) {
+            return new AtomicReference<>();
         }
     };
 
+    private volatile @Nullable EventMetrics metrics;
+    private volatile @Nullable ListenerWatchdog watchdog;
+
     /**
-     * Creates a new {@link ListenerRegistry} using a cached thread pool
-     * as its default asynchronous execution strategy.
+     * Creates a new {@link ListenerRegistry} using the {@link EventExecutors#newDefaultExecutor()
+     * default executor} as its default asynchronous execution strategy. On Java 21 and newer,
+     * asynchronous listeners are executed on virtual threads, otherwise a cached thread pool is used.
      */
     public ListenerRegistry() {
-        this(Executors.newCachedThreadPool());
+        this(EventExecutors.newDefaultExecutor());
+    }
+
+    /**
+     * Creates a new {@link ListenerRegistry} using the {@link EventExecutors#newDefaultExecutor()
+     * default executor}, which runs at most the given number of asynchronous listeners
+     * at the same time. Further listeners are queued until a running listener has finished.
+     *
+     * @param maxConcurrency The maximum number of concurrently running asynchronous listeners.
+     * @throws IllegalArgumentException If the maximum concurrency is not positive.
+     * @since 3.8.17
+     */
+    public ListenerRegistry(int maxConcurrency) {
+        this(EventExecutors.bounded(EventExecutors.newDefaultExecutor(), maxConcurrency));
     }
 
     /**
@@ -84,101 +105,237 @@ public class ListenerRegistry {
      * object annotated with {@link EventHandler} are registered to handle events.
      *
      * @param adapter The listener containing event handler methods.
+     * @return The {@link Registration} handle which can be used to remove the registered listeners again.
      */
-    public void register(@NotNull ListenerAdapter adapter) {
-        Set<Class<? extends Event>> changedEvents = new HashSet<>();
-        List<Method> methods = Utils.getMethodsByAnnotation(adapter.getClass(), EventHandler.class);
-        for (Method method : methods) {
-            try {
-                Class<? extends Event> event = getEventTypeOrThrow(method);
-                EventHandler eventHandler = method.getAnnotation(EventHandler.class);
-                Listener listener = new ReflectionListener(
-                        event, method, adapter,
-                        eventHandler.priority(),
-                        eventHandler.ignoreWhenCancelled()
-                );
-
-                registeredListeners
-                        .computeIfAbsent(event, p -> new EnumMap<>(EventPriority.class))
-                        .computeIfAbsent(eventHandler.priority(), e -> new CopyOnWriteArrayList<>())
-                        .add(listener);
-
-                changedEvents.add(event);
-            } catch (Exception e) {
-                throw new RuntimeException("Could not register handler %s#%s(%s)!".formatted(
-                        method.getDeclaringClass().getSimpleName(),
-                        method.getName(),
-                        Arrays.toString(method.getParameterTypes())
-                ), e);
-            }
+    public Registration register(@NotNull ListenerAdapter adapter) {
+        List<Listener> listeners = createListeners(adapter);
+        ListenerSnapshot.Editor editor = update(e -> listeners.forEach(e::add));
+        listenerIndex.add(adapter);
+        return new Registration(this, listeners, editor.ids(listeners), List.of(adapter));
+    }
+
+    /**
+     * Registers all given event listeners at once. All methods in the provided
+     * {@code ListenerAdapter} objects annotated with {@link EventHandler} are registered
+     * to handle events.
+     * <p>
+     * All adapters are validated before any of them is registered, so that either all
+     * or none of the adapters are registered. The affected dispatch plans are rebaked
+     * only once, regardless of the number of adapters.
+     *
+     * @param adapters The listeners containing event handler methods.
+     * @return The {@link Registration} handle which can be used to remove all registered listeners again.
+     * @since 3.8.17
+     */
+    public Registration registerAll(@NotNull Collection<? extends ListenerAdapter> adapters) {
+        Transaction transaction = transaction();
+        adapters.forEach(transaction::register);
+        return transaction.commit();
+    }
+
+    /**
+     * Creates the listeners for all methods in the provided {@code ListenerAdapter}
+     * object annotated with {@link EventHandler}.
+     *
+     * @param adapter The listener containing event handler methods.
+     * @return The created listeners.
+     * @since 3.8.17
+     */
+    private @NotNull List<Listener> createListeners(@NotNull ListenerAdapter adapter) {
+        List<HandlerMethod> handlers = AdapterHandlers.of(adapter.getClass());
+        List<Listener> listeners = new ArrayList<>(handlers.size());
+        for (HandlerMethod handler : handlers) {
+            listeners.add(new ReflectionListener(handler, adapter));
         }
 
-        listenerIndex.add(adapter);
-        bakeAll(changedEvents);
+        return listeners;
     }
 
     /**
      * Registers a functional event listener for the given event type using
      * default priority {@link EventPriority#NORMAL} and without ignoring cancelled events.
      *
-     * @param eventType The class type of the event to listen for.
+     * @param eventType The class type of the event to listen for, may also be an interface.
      * @param consumer  The consumer that will handle the event.
      * @param <T>       The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
      * @since 3.8.13
      */
-    public <T extends Event> void register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer) {
-        this.register(eventType, consumer, EventPriority.NORMAL, false);
+    public <T> Registration register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer) {
+        return this.register(eventType, consumer, EventPriority.NORMAL, false);
     }
 
     /**
      * Registers a functional event listener for the given event type using
      * default priority {@link EventPriority#NORMAL}.
      *
-     * @param eventType           The class type of the event to listen for.
+     * @param eventType           The class type of the event to listen for, may also be an interface.
      * @param consumer            The consumer that will handle the event.
      * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
      * @param <T>                 The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
      * @since 3.8.13
      */
-    public <T extends Event> void register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer,
-                                           boolean ignoreWhenCancelled) {
-        this.register(eventType, consumer, EventPriority.NORMAL, ignoreWhenCancelled);
+    public <T> Registration register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer,
+                                     boolean ignoreWhenCancelled) {
+        return this.register(eventType, consumer, EventPriority.NORMAL, ignoreWhenCancelled);
     }
 
     /**
      * Registers a functional event listener for the given event type without
      * specifying cancellation behavior.
      *
-     * @param eventType The class type of the event to listen for.
+     * @param eventType The class type of the event to listen for, may also be an interface.
      * @param consumer  The consumer that will handle the event.
      * @param priority  The priority at which the listener should be executed.
      * @param <T>       The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
      * @since 3.8.13
      */
-    public <T extends Event> void register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer,
-                                           @NotNull EventPriority priority) {
-        this.register(eventType, consumer, priority, false);
+    public <T> Registration register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer,
+                                     @NotNull EventPriority priority) {
+        return this.register(eventType, consumer, priority, false);
     }
 
     /**
      * Registers a functional event listener for the given event type.
      *
-     * @param eventType           The class type of the event to listen for.
+     * @param eventType           The class type of the event to listen for, may also be an interface.
      * @param consumer            The consumer that will handle the event.
      * @param priority            The priority at which the listener should be executed.
      * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
      * @param <T>                 The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
      * @since 3.8.13
      */
-    public <T extends Event> void register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer,
-                                           @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
-        Listener listener = new DirectListener<>(eventType, consumer, priority, ignoreWhenCancelled);
-        registeredListeners
-                .computeIfAbsent(eventType, p -> new EnumMap<>(EventPriority.class))
-                .computeIfAbsent(priority, e -> new CopyOnWriteArrayList<>())
-                .add(listener);
+    public <T> Registration register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer,
+                                     @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
+        return this.register(new DirectListener<>(eventType, consumer, priority, ignoreWhenCancelled));
+    }
+
+    /**
+     * Registers a functional event listener for the given event type, which is only
+     * called for {@link Routable} events carrying the given routing key. It uses the
+     * default priority {@link EventPriority#NORMAL} and does not ignore cancelled events.
+     *
+     * @param eventType  The class type of the event to listen for, may also be an interface.
+     * @param routingKey The routing key of the events to listen for.
+     * @param consumer   The consumer that will handle the event.
+     * @param <T>        The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
+     * @since 3.8.17
+     */
+    public <T> Registration register(@NotNull Class<T> eventType, @NotNull Object routingKey,
+                                     @NotNull Consumer<T> consumer) {
+        return this.register(eventType, routingKey, consumer, EventPriority.NORMAL, false);
+    }
+
+    /**
+     * Registers a functional event listener for the given event type, which is only
+     * called for {@link Routable} events carrying the given routing key.
+     * <p>
+     * Keyed listeners are indexed by their key in the dispatch plan, so dispatching
+     * an event only visits the listeners of its own routing key.
+     *
+     * @param eventType           The class type of the event to listen for, may also be an interface.
+     * @param routingKey          The routing key of the events to listen for.
+     * @param consumer            The consumer that will handle the event.
+     * @param priority            The priority at which the listener should be executed.
+     * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
+     * @param <T>                 The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
+     * @since 3.8.17
+     */
+    public <T> Registration register(@NotNull Class<T> eventType, @NotNull Object routingKey,
+                                     @NotNull Consumer<T> consumer,
+                                     @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
+        return this.register(new DirectListener<>(eventType, consumer, routingKey, null, priority, ignoreWhenCancelled));
+    }
+
+    /**
+     * Registers a functional event listener for the given event type, which is only
+     * called for events passing the given filter. It uses the default priority
+     * {@link EventPriority#NORMAL} and does not ignore cancelled events.
+     *
+     * @param eventType The class type of the event to listen for, may also be an interface.
+     * @param filter    The filter events have to pass before they are handed to the consumer.
+     * @param consumer  The consumer that will handle the event.
+     * @param <T>       The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
+     * @since 3.8.17
+     */
+    public <T> Registration register(@NotNull Class<T> eventType, @NotNull Predicate<? super T> filter,
+                                     @NotNull Consumer<T> consumer) {
+        return this.register(eventType, filter, consumer, EventPriority.NORMAL, false);
+    }
+
+    /**
+     * Registers a functional event listener for the given event type, which is only
+     * called for events passing the given filter.
+     *
+     * @param eventType           The class type of the event to listen for, may also be an interface.
+     * @param filter              The filter events have to pass before they are handed to the consumer.
+     * @param consumer            The consumer that will handle the event.
+     * @param priority            The priority at which the listener should be executed.
+     * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
+     * @param <T>                 The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
+     * @since 3.8.17
+     */
+    public <T> Registration register(@NotNull Class<T> eventType, @NotNull Predicate<? super T> filter,
+                                     @NotNull Consumer<T> consumer,
+                                     @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
+        return this.register(new DirectListener<>(eventType, consumer, null, filter, priority, ignoreWhenCancelled));
+    }
+
+    /**
+     * Registers a functional event listener for the given event type, which receives the
+     * events of a {@link #callAll(Collection) batch dispatch} in a single list. Events
+     * dispatched one at a time are handed over as a list of one event. It uses the default
+     * priority {@link EventPriority#NORMAL} and does not ignore cancelled events.
+     *
+     * @param eventType The class type of the event to listen for, may also be an interface.
+     * @param consumer  The consumer that will handle the batches of events.
+     * @param <T>       The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
+     * @since 3.8.17
+     */
+    public <T> Registration registerBatch(@NotNull Class<T> eventType, @NotNull Consumer<List<T>> consumer) {
+        return this.registerBatch(eventType, consumer, EventPriority.NORMAL, false);
+    }
+
+    /**
+     * Registers a functional event listener for the given event type, which receives the
+     * events of a {@link #callAll(Collection) batch dispatch} in a single list. Events
+     * dispatched one at a time are handed over as a list of one event.
+     * <p>
+     * This suits listeners which can process many events at once considerably cheaper
+     * than one by one, for example by persisting them in a single write.
+     *
+     * @param eventType           The class type of the event to listen for, may also be an interface.
+     * @param consumer            The consumer that will handle the batches of events.
+     * @param priority            The priority at which the listener should be executed.
+     * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
+     * @param <T>                 The type of the event.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
+     * @since 3.8.17
+     */
+    public <T> Registration registerBatch(@NotNull Class<T> eventType, @NotNull Consumer<List<T>> consumer,
+                                          @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
+        return this.register(DirectListener.batched(eventType, consumer, null, null, priority, ignoreWhenCancelled));
+    }
 
-        bakeAll(Collections.singleton(eventType));
+    /**
+     * Registers a single, already created listener.
+     *
+     * @param listener The listener to register.
+     * @return The {@link Registration} handle which can be used to remove the listener again.
+     * @since 3.8.17
+     */
+    private Registration register(@NotNull Listener listener) {
+        List<Listener> listeners = List.of(listener);
+        ListenerSnapshot.Editor editor = update(e -> e.add(listener));
+        return new Registration(this, listeners, editor.ids(listeners), List.of());
     }
 
     /**
@@ -188,117 +345,238 @@ public class ListenerRegistry {
      * @param adapter The listener whose event handlers should be unregistered.
      */
     public void unregister(@NotNull ListenerAdapter adapter) {
-        Set<Class<? extends Event>> changedEvents = new HashSet<>();
-        List<Method> methods = Utils.getMethodsByAnnotation(adapter.getClass(), EventHandler.class);
-        for (Method method : methods) {
-            try {
-                Class<? extends Event> event = getEventTypeOrThrow(method);
-                EventHandler eventHandler = method.getAnnotation(EventHandler.class);
-
-                Map<EventPriority, List<Listener>> map = registeredListeners.get(event);
-                if (map == null) {
-                    continue;
-                }
-
-                List<Listener> listeners = map.get(eventHandler.priority());
-                if (listeners == null) {
-                    continue;
-                }
-
-                changedEvents.add(event);
-                listeners.removeIf(listener ->
-                        listener instanceof ReflectionListener rl &&
-                                rl.getMethod().equals(method) &&
-                                rl.getOwner() == adapter
-                );
-
-                if (listeners.isEmpty()) {
-                    map.remove(eventHandler.priority());
-                }
-
-                if (map.isEmpty()) {
-                    registeredListeners.remove(event);
-                }
-            } catch (Exception e) {
-                throw new RuntimeException("Could not unregister handler %s#%s(%s)!".formatted(
-                        method.getDeclaringClass().getSimpleName(),
-                        method.getName(),
-                        Arrays.toString(method.getParameterTypes())
-                ), e);
+        update(removal(adapter));
+        listenerIndex.remove(adapter);
+    }
+
+    /**
+     * Removes exactly the listeners of the given registration from the registry.
+     *
+     * @param registration The registration whose listeners should be removed.
+     * @since 3.8.17
+     */
+    void unregister(@NotNull Registration registration) {
+        List<Listener> listeners = registration.getListeners();
+        long[] ids = registration.getIds();
+
+        update(editor -> {
+            for (int i = 0; i < ids.length; i++) {
+                editor.remove(listeners.get(i), ids[i]);
             }
+        });
+        registration.getAdapters().forEach(listenerIndex::remove);
+    }
+
+    /**
+     * Unregisters all given event listeners at once, removing all of their registered
+     * event handler methods from the registry. The affected dispatch plans are rebaked
+     * only once, regardless of the number of adapters.
+     *
+     * @param adapters The listeners whose event handlers should be unregistered.
+     * @since 3.8.17
+     */
+    public void unregisterAll(@NotNull Collection<? extends ListenerAdapter> adapters) {
+        Transaction transaction = transaction();
+        adapters.forEach(transaction::unregister);
+        transaction.commit();
+    }
+
+    /**
+     * Creates a new {@link Transaction}, which collects any number of registrations
+     * and unregistrations and applies them at once.
+     *
+     * @return The new transaction.
+     * @since 3.8.17
+     */
+    public @NotNull Transaction transaction() {
+        return new Transaction();
+    }
+
+    /**
+     * Creates the mutation which removes all event handler methods of the
+     * provided {@code ListenerAdapter} object from the registry.
+     *
+     * @param adapter The listener whose event handlers should be removed.
+     * @return The mutation removing the event handlers.
+     * @since 3.8.17
+     */
+    private @NotNull Consumer<ListenerSnapshot.Editor> removal(@NotNull ListenerAdapter adapter) {
+        Set<Class<?>> eventTypes = new HashSet<>();
+        for (HandlerMethod handler : AdapterHandlers.of(adapter.getClass())) {
+            eventTypes.add(handler.getEventType());
         }
 
-        listenerIndex.remove(adapter);
-        bakeAll(changedEvents);
+        return editor -> eventTypes.forEach(event -> editor.remove(event, listener ->
+                listener instanceof ReflectionListener rl && rl.getOwner() == adapter
+        ));
     }
 
     /**
-     * Invalidates and rebakes all cached listener chains for the given event types.
+     * Applies a mutation to the registered listeners by building a new immutable
+     * {@link ListenerSnapshot} and atomically swapping it in.
+     * <p>
+     * If another thread published a snapshot in the meantime, the mutation is
+     * reapplied to the newer snapshot. The mutation must therefore be free of
+     * side effects other than those on the passed editor.
      * <p>
-     * This ensures that any structural changes in the listener registry are properly
-     * reflected in the internal execution order cache, including inherited event types.
+     * Baked dispatch plans are not touched here, they detect the version change
+     * on their next use and are rebaked if one of their event types was affected.
      *
-     * @param targetEvents The set of event types that have changed and require rebaking.
-     * @since 3.8.13
+     * @param mutation The mutation to apply.
+     * @return The editor which produced the published snapshot.
+     * @since 3.8.17
      */
-    @SuppressWarnings("unchecked")
-    private void bakeAll(Collection<Class<? extends Event>> targetEvents) {
-        Set<Class<? extends Event>> rebakeTypes = new HashSet<>();
-        for (Class<? extends Event> type : targetEvents) {
-            for (Class<?> current = type;
-                 current != null && Event.class.isAssignableFrom(current);
-                 current = current.getSuperclass()) {
+    private @NotNull ListenerSnapshot.Editor update(@NotNull Consumer<ListenerSnapshot.Editor> mutation) {
+        ListenerSnapshot current, next;
+        ListenerSnapshot.Editor editor;
+        do {
+            current = registeredListeners.get();
+
+            editor = current.edit();
+            mutation.accept(editor);
+            next = editor.build();
+        } while (current != next && !registeredListeners.compareAndSet(current, next));
+
+        return editor;
+    }
 
-                rebakeTypes.add((Class<? extends Event>) current);
-            }
+    /**
+     * Returns the dispatch plan for the given event type which is valid
+     * for the current {@link ListenerSnapshot}, rebaking it if necessary.
+     *
+     * @param eventType The event class for which to look up the dispatch plan.
+     * @return The up-to-date {@link ListenerChain}.
+     * @since 3.8.17
+     */
+    private @NotNull ListenerChain chain(@NotNull Class<? extends Event> eventType) {
+        AtomicReference<ListenerChain> slot = bakedListeners.get(eventType);
+        ListenerChain chain = slot.get();
+        ListenerSnapshot snapshot = registeredListeners.get();
+
+        if (chain != null && chain.version() == snapshot.version()) {
+            return chain;
         }
 
-        for (Class<? extends Event> type : rebakeTypes) {
-            bakedListeners.remove(type);
+        return rebake(eventType, slot, snapshot);
+    }
+
+    /**
+     * Brings the dispatch plan stored in the given slot up to date with the given snapshot.
+     * <p>
+     * Plans which are not affected by the changes since they were baked are only
+     * restamped with the new version. If another thread stores a plan concurrently,
+     * the operation is retried, so that a plan baked against an outdated snapshot
+     * can never replace a newer one.
+     *
+     * @param eventType The event class of the dispatch plan.
+     * @param slot      The slot holding the cached dispatch plan.
+     * @param snapshot  The snapshot the plan should reflect.
+     * @return The up-to-date {@link ListenerChain}.
+     * @since 3.8.17
+     */
+    private @NotNull ListenerChain rebake(@NotNull Class<? extends Event> eventType,
+                                          @NotNull AtomicReference<ListenerChain> slot,
+                                          @NotNull ListenerSnapshot snapshot) {
+        ListenerChain current = slot.get();
+        while (current == null || current.version() < snapshot.version()) {
+            ListenerChain next = current != null && current.isValidFor(snapshot)
+                    ? current.withVersion(snapshot.version())
+                    : bake(eventType, snapshot);
+
+            if (slot.compareAndSet(current, next)) {
+                return next;
+            }
+
+            current = slot.get();
         }
+
+        return current;
     }
 
     /**
-     * Builds a chained and ordered listener pipeline for the given event type.
+     * Builds the flat and ordered dispatch plan for the given event type.
      * <p>
-     * Listeners are collected by traversing the event class hierarchy and sorting
-     * them by {@link EventPriority} according to the internal priority ordering.
+     * Listeners are collected from all types of the cached event hierarchy, including
+     * the implemented interfaces, and are ordered by {@link EventPriority} first. Listeners
+     * sharing the same priority are ordered from the most general to the most specific
+     * event type and by registration order.
      *
-     * @param eventType The event class for which to build the listener chain.
-     * @return A chained {@link Listener} instance, or {@code null} if no listeners exist.
+     * @param eventType The event class for which to build the dispatch plan.
+     * @param snapshot  The snapshot to collect the listeners from.
+     * @return The baked {@link ListenerChain}.
      * @since 3.8.13
      */
-    @SuppressWarnings("unchecked")
-    private Listener bake(@NotNull Class<? extends Event> eventType) {
+    private ListenerChain bake(@NotNull Class<? extends Event> eventType, @NotNull ListenerSnapshot snapshot) {
+        Class<?>[] types = HIERARCHIES.get(eventType);
+
+        List<ListenerSnapshot.Entry> hierarchy = new ArrayList<>();
+        for (Class<?> type : types) {
+            ListenerSnapshot.Entry entry = snapshot.get(type);
+            if (entry != null) {
+                hierarchy.add(entry);
+            }
+        }
+
         List<Listener> ordered = new ArrayList<>();
+        for (EventPriority priority : PRIORITIES) {
+            for (int i = hierarchy.size() - 1; i >= 0; i--) {
+                hierarchy.get(i).collect(priority, ordered);
+            }
+        }
+
+        EventMetrics metrics = this.metrics;
+        if (metrics != null) {
+            return new InstrumentedListenerChain(
+                    ordered.toArray(Listener[]::new),
+                    types,
+                    snapshot.version(),
+                    eventType, metrics
+            );
+        }
 
+        return new ListenerChain(
+                ordered.toArray(Listener[]::new),
+                types,
+                snapshot.version()
+        );
+    }
+
+    /**
+     * Resolves all types listeners can subscribe to in order to receive events of the given class.
+     * <p>
+     * The returned array contains the class itself and its superclasses up to {@link Event},
+     * ordered from the most specific to the most general one, followed by all interfaces
+     * implemented by these classes. Interfaces are considered more general than any class
+     * and appear in the order in which they were declared, with super interfaces following
+     * the interfaces extending them.
+     *
+     * @param eventType The concrete event class.
+     * @return The resolved event hierarchy.
+     * @since 3.8.17
+     */
+    private static Class<?>[] resolveHierarchy(@NotNull Class<?> eventType) {
+        List<Class<?>> classes = new ArrayList<>();
         for (Class<?> current = eventType;
              current != null && Event.class.isAssignableFrom(current);
              current = current.getSuperclass()) {
+            classes.add(current);
+        }
 
-            Map<EventPriority, List<Listener>> map =
-                    registeredListeners.get((Class<? extends Event>) current);
-
-            if (map == null) {
-                continue;
-            }
-
-            for (EventPriority priority : REVERSED_PRIORITIES) {
-                List<Listener> list = map.get(priority);
-                if (list != null) {
-                    ordered.addAll(list);
-                }
-            }
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        for (Class<?> type : classes) {
+            pending.addAll(Arrays.asList(type.getInterfaces()));
         }
 
-        if (ordered.isEmpty()) {
-            return null;
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (interfaces.add(type)) {
+                pending.addAll(Arrays.asList(type.getInterfaces()));
+            }
         }
 
-        return ordered.stream().reduce((current, next) -> {
-            next.setNext(current);
-            return next;
-        }).orElseThrow();
+        classes.addAll(interfaces);
+        return classes.toArray(Class<?>[]::new);
     }
 
     /**
@@ -333,12 +611,55 @@ public class ListenerRegistry {
      * in order of their {@link EventPriority}.
      *
      * @param event The event to be dispatched.
+     * @throws IllegalStateException If the event is a {@link ReusableEvent} which has already been released.
      * @since 3.8.13
      */
     public void call(@NotNull Event event) {
-        Listener listener = bakedListeners.get(event.getClass());
-        if (listener != null) {
-            listener.accept(event);
+        event.ensureLeased();
+        chain(event.getClass()).call(event);
+    }
+
+    /**
+     * Calls a batch of events by invoking the registered listeners for each event type.
+     * <p>
+     * The events are grouped by their concrete type and the dispatch plan of each type
+     * is resolved only once. The groups are dispatched in the order in which their types
+     * first appear in the collection. Within a group, every listener is invoked with all
+     * events of the group before the next listener is invoked, in order of their
+     * {@link EventPriority}. Listeners registered with {@link #registerBatch(Class, Consumer)}
+     * receive the whole group in a single list, while all other listeners are called once
+     * per event in the order of the collection.
+     * <p>
+     * Events of different types are therefore not dispatched in the order of the
+     * collection, and a listener may observe later events of a group before an
+     * earlier event has reached the following listeners.
+     *
+     * @param events The events to be dispatched.
+     * @since 3.8.17
+     */
+    public void callAll(@NotNull Collection<? extends Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        Map<Class<? extends Event>, List<Event>> groups = new LinkedHashMap<>();
+        Class<? extends Event> lastType = null;
+        List<Event> lastGroup = null;
+
+        for (Event event : events) {
+            event.ensureLeased();
+
+            Class<? extends Event> type = event.getClass();
+            if (type != lastType) {
+                lastGroup = groups.computeIfAbsent(type, t -> new ArrayList<>());
+                lastType = type;
+            }
+
+            lastGroup.add(event);
+        }
+
+        for (Map.Entry<Class<? extends Event>, List<Event>> group : groups.entrySet()) {
+            chain(group.getKey()).callAll(Collections.unmodifiableList(group.getValue()));
         }
     }
 
@@ -359,7 +680,14 @@ public class ListenerRegistry {
      * <p>
      * The execution is split into sequential priority stages (from lowest to highest),
      * while listeners within the same priority are executed concurrently using the
-     * supplied {@link Executor}.
+     * supplied {@link Executor}. The stages are precomputed by the dispatch plan and
+     * priorities without listeners do not cause a stage at all.
+     * <p>
+     * If the event is {@link Cancellable}, its cancellation state is evaluated before
+     * each stage is started. Once cancelled, listeners marked to ignore cancelled events
+     * are not scheduled anymore, and stages consisting only of such listeners are skipped.
+     * Listeners of the same stage run concurrently, so cancelling an event only affects
+     * the following stages.
      *
      * @param event    The event to dispatch
      * @param executor The executor used for asynchronous listener execution
@@ -367,92 +695,136 @@ public class ListenerRegistry {
      * @since 3.8.13
      */
     public CompletableFuture<Event> callAsync(@NotNull Event event, @NotNull Executor executor) {
+        event.ensureLeased();
         event.markAsync();
         event.ensureAsyncAllowed();
 
-        Listener listener = bakedListeners.get(event.getClass());
-        if (listener == null) {
+        ListenerChain.Stage[] stages = chain(event.getClass()).stagesFor(event);
+        if (stages.length == 0) {
             return CompletableFuture.completedFuture(event);
         }
 
-        EnumMap<EventPriority, List<Listener>> priorities = new EnumMap<>(EventPriority.class);
-        for (Listener current = listener; current != null; current = current.getNext()) {
-            priorities.computeIfAbsent(current.getPriority(), __ -> new ArrayList<>())
-                    .add(current);
+        CompletableFuture<Void> future = callAsync(event, executor, stages[0].select(event));
+        for (int i = 1; i < stages.length; i++) {
+            ListenerChain.Stage stage = stages[i];
+            future = future.thenCompose(v -> callAsync(event, executor, stage.select(event)));
         }
 
-        return callAsync(event, executor, priorities.get(EventPriority.LOWEST))
-                .thenCompose(v -> callAsync(event, executor, priorities.get(EventPriority.LOW)))
-                .thenCompose(v -> callAsync(event, executor, priorities.get(EventPriority.NORMAL)))
-                .thenCompose(v -> callAsync(event, executor, priorities.get(EventPriority.HIGH)))
-                .thenCompose(v -> callAsync(event, executor, priorities.get(EventPriority.HIGHEST)))
-                .thenCompose(v -> callAsync(event, executor, priorities.get(EventPriority.MONITOR)))
-                .thenApply(v -> event);
+        return future.thenApply(v -> event);
     }
 
     /**
-     * Executes a collection of listeners asynchronously using the provided executor.
+     * Executes a stage of listeners asynchronously using the provided executor.
      * <p>
-     * All listeners in the collection are executed in parallel, and the returned
+     * All listeners in the stage are executed in parallel, and the returned
      * future completes when all listener executions have finished.
      *
      * @param event     The event to pass to each listener
      * @param executor  The executor used for asynchronous execution
-     * @param listeners The collection of listeners to execute; may be {@code null}
+     * @param listeners The listeners of the stage to execute, may be empty
      * @return A {@link CompletableFuture} that completes when all listeners have finished execution
      * @since 3.8.14
      */
     private CompletableFuture<Void> callAsync(@NotNull Event event, @NotNull Executor executor,
-                                              @Nullable Collection<Listener> listeners) {
-        if (listeners == null || listeners.isEmpty()) {
+                                              @NotNull Listener[] listeners) {
+        if (listeners.length == 0) {
             return CompletableFuture.completedFuture(null);
         }
 
-        List<CompletableFuture<Void>> futures = new ArrayList<>(listeners.size());
-        for (Listener listener : listeners) {
-            CompletableFuture<Void> future = CompletableFuture.runAsync(
-                    () -> listener.call(event),
-                    executor
-            );
-            futures.add(future);
+        ListenerWatchdog watchdog = this.watchdog;
+        if (listeners.length == 1) {
+            return callAsync(event, executor, listeners[0], watchdog);
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            futures[i] = callAsync(event, executor, listeners[i], watchdog);
         }
 
-        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+        return CompletableFuture.allOf(futures);
     }
 
     /**
-     * Returns the internal {@link CallQueue} responsible for managing
-     * deferred and asynchronous event dispatching.
+     * Executes a single listener asynchronously using the provided executor,
+     * watched by the given watchdog if present.
      *
-     * @return The {@link CallQueue} instance associated with this registry.
-     * @since 3.8.13
+     * @param event    The event to pass to the listener
+     * @param executor The executor used for asynchronous execution
+     * @param listener The listener to execute
+     * @param watchdog The watchdog watching the execution, or {@code null}
+     * @return A {@link CompletableFuture} that completes when the listener has finished execution
+     * @since 3.8.17
      */
-    public @NotNull CallQueue getCallQueue() {
-        return callQueue;
+    private CompletableFuture<Void> callAsync(@NotNull Event event, @NotNull Executor executor,
+                                              @NotNull Listener listener, @Nullable ListenerWatchdog watchdog) {
+        if (watchdog != null) {
+            return watchdog.run(event, listener, executor);
+        }
+
+        return CompletableFuture.runAsync(() -> listener.call(event), executor);
     }
 
     /**
-     * Retrieves the event type for which the handler is listening.
+     * Enables or disables the collection of metrics.
+     * <p>
+     * Metrics are disabled by default. Changing the metrics invalidates all dispatch
+     * plans, which are then rebaked on their next dispatch. While enabled, every listener
+     * of a plan is wrapped to measure its invocations. Plans baked while metrics are
+     * disabled do not contain any instrumentation, so that the dispatch path is exactly
+     * the same as without metrics support.
      *
-     * @param method The method which handles a given event type.
-     * @return The type of the event the handler listens for.
-     * @since 3.8.7
+     * @param metrics The metrics to report to, or {@code null} to disable metrics.
+     * @see de.craftsblock.craftscore.event.metrics.StandardEventMetrics
+     * @since 3.8.17
      */
-    private static @NotNull Class<? extends Event> getEventTypeOrThrow(@NotNull Method method) {
-        String exception = "The method %s is provided with %s but does not include %s as the first argument!".formatted(
-                method.getName(), EventHandler.class.getName(), Event.class.getName()
-        );
+    public void setMetrics(@Nullable EventMetrics metrics) {
+        this.metrics = metrics;
+        update(ListenerSnapshot.Editor::invalidateAll);
+    }
 
-        if (method.getParameterCount() <= 0) {
-            throw new IllegalStateException(exception);
-        }
+    /**
+     * Returns the metrics the dispatch plans currently report to.
+     *
+     * @return The metrics, or {@code null} if metrics are disabled.
+     * @since 3.8.17
+     */
+    public @Nullable EventMetrics getMetrics() {
+        return metrics;
+    }
 
-        Class<?> parameter = method.getParameters()[0].getType();
-        if (!Event.class.isAssignableFrom(parameter)) {
-            throw new IllegalStateException(exception);
-        }
+    /**
+     * Sets the watchdog which watches the listeners executed by the asynchronous dispatch.
+     * <p>
+     * Listeners exceeding their budget are reported by the watchdog and, if enabled,
+     * timed out, which completes the dispatch of the event exceptionally. The watchdog
+     * is not closed by the registry.
+     *
+     * @param watchdog The watchdog to use, or {@code null} to disable watching.
+     * @since 3.8.17
+     */
+    public void setWatchdog(@Nullable ListenerWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * Returns the watchdog which watches the listeners executed by the asynchronous dispatch.
+     *
+     * @return The watchdog, or {@code null} if watching is disabled.
+     * @since 3.8.17
+     */
+    public @Nullable ListenerWatchdog getWatchdog() {
+        return watchdog;
+    }
 
-        return parameter.asSubclass(Event.class);
+    /**
+     * Returns the internal {@link CallQueue} responsible for managing
+     * deferred and asynchronous event dispatching.
+     *
+     * @return The {@link CallQueue} instance associated with this registry.
+     * @since 3.8.13
+     */
+    public @NotNull CallQueue getCallQueue() {
+        return callQueue;
     }
 
     /**
@@ -465,4 +837,185 @@ public class ListenerRegistry {
         return GLOBAL;
     }
 
+    /**
+     * Collects any number of listener registrations and unregistrations and applies
+     * them to the {@link ListenerRegistry} at once.
+     * <p>
+     * Every listener is validated when it is added to the transaction, so that an
+     * invalid listener fails before anything has been changed. On {@link #commit()}
+     * all changes are published as a single new snapshot, which means that each
+     * affected dispatch plan is rebaked exactly once. This is considerably cheaper
+     * than registering a large number of listeners one by one, for example while
+     * loading plugins at startup.
+     * <p>
+     * Transactions are not thread-safe and may only be committed once.
+     *
+     * @author Philipp Maywald
+     * @author CraftsBlock
+     * @since 3.8.17
+     */
+    public final class Transaction {
+
+        private final List<Consumer<ListenerSnapshot.Editor>> changes = new ArrayList<>();
+        private final List<Runnable> indexChanges = new ArrayList<>();
+        private final List<Listener> registeredListeners = new ArrayList<>();
+        private final List<ListenerAdapter> registeredAdapters = new ArrayList<>();
+        private boolean committed = false;
+
+        /**
+         * Private constructor, transactions are created through {@link ListenerRegistry#transaction()}.
+         */
+        private Transaction() {
+        }
+
+        /**
+         * Adds the registration of an event listener to this transaction.
+         *
+         * @param adapter The listener containing event handler methods.
+         * @return This transaction for chaining.
+         * @see ListenerRegistry#register(ListenerAdapter)
+         */
+        public @NotNull Transaction register(@NotNull ListenerAdapter adapter) {
+            ensureOpen();
+
+            List<Listener> listeners = createListeners(adapter);
+            changes.add(editor -> listeners.forEach(editor::add));
+            indexChanges.add(() -> listenerIndex.add(adapter));
+
+            registeredListeners.addAll(listeners);
+            registeredAdapters.add(adapter);
+            return this;
+        }
+
+        /**
+         * Adds the registration of a functional event listener to this transaction.
+         *
+         * @param eventType           The class type of the event to listen for, may also be an interface.
+         * @param consumer            The consumer that will handle the event.
+         * @param priority            The priority at which the listener should be executed.
+         * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
+         * @param <T>                 The type of the event.
+         * @return This transaction for chaining.
+         * @see ListenerRegistry#register(Class, Consumer, EventPriority, boolean)
+         */
+        public <T> @NotNull Transaction register(@NotNull Class<T> eventType, @NotNull Consumer<T> consumer,
+                                                 @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
+            return this.register(new DirectListener<>(eventType, consumer, priority, ignoreWhenCancelled));
+        }
+
+        /**
+         * Adds the registration of a functional event listener, which is restricted
+         * to a routing key, to this transaction.
+         *
+         * @param eventType           The class type of the event to listen for, may also be an interface.
+         * @param routingKey          The routing key of the events to listen for.
+         * @param consumer            The consumer that will handle the event.
+         * @param priority            The priority at which the listener should be executed.
+         * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
+         * @param <T>                 The type of the event.
+         * @return This transaction for chaining.
+         * @see ListenerRegistry#register(Class, Object, Consumer, EventPriority, boolean)
+         * @since 3.8.17
+         */
+        public <T> @NotNull Transaction register(@NotNull Class<T> eventType, @NotNull Object routingKey,
+                                                 @NotNull Consumer<T> consumer,
+                                                 @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
+            return this.register(new DirectListener<>(eventType, consumer, routingKey, null, priority, ignoreWhenCancelled));
+        }
+
+        /**
+         * Adds the registration of a functional event listener, which is restricted
+         * by a filter, to this transaction.
+         *
+         * @param eventType           The class type of the event to listen for, may also be an interface.
+         * @param filter              The filter events have to pass before they are handed to the consumer.
+         * @param consumer            The consumer that will handle the event.
+         * @param priority            The priority at which the listener should be executed.
+         * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
+         * @param <T>                 The type of the event.
+         * @return This transaction for chaining.
+         * @see ListenerRegistry#register(Class, Predicate, Consumer, EventPriority, boolean)
+         * @since 3.8.17
+         */
+        public <T> @NotNull Transaction register(@NotNull Class<T> eventType, @NotNull Predicate<? super T> filter,
+                                                 @NotNull Consumer<T> consumer,
+                                                 @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
+            return this.register(new DirectListener<>(eventType, consumer, null, filter, priority, ignoreWhenCancelled));
+        }
+
+        /**
+         * Adds the registration of a functional event listener, which receives batches
+         * of events, to this transaction.
+         *
+         * @param eventType           The class type of the event to listen for, may also be an interface.
+         * @param consumer            The consumer that will handle the batches of events.
+         * @param priority            The priority at which the listener should be executed.
+         * @param ignoreWhenCancelled Whether the listener should ignore cancelled events.
+         * @param <T>                 The type of the event.
+         * @return This transaction for chaining.
+         * @see ListenerRegistry#registerBatch(Class, Consumer, EventPriority, boolean)
+         * @since 3.8.17
+         */
+        public <T> @NotNull Transaction registerBatch(@NotNull Class<T> eventType, @NotNull Consumer<List<T>> consumer,
+                                                      @NotNull EventPriority priority, boolean ignoreWhenCancelled) {
+            return this.register(DirectListener.batched(eventType, consumer, null, null, priority, ignoreWhenCancelled));
+        }
+
+        /**
+         * Adds the registration of a single, already created listener to this transaction.
+         *
+         * @param listener The listener to register.
+         * @return This transaction for chaining.
+         */
+        private @NotNull Transaction register(@NotNull Listener listener) {
+            ensureOpen();
+
+            changes.add(editor -> editor.add(listener));
+            registeredListeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Adds the unregistration of an event listener to this transaction.
+         *
+         * @param adapter The listener whose event handlers should be unregistered.
+         * @return This transaction for chaining.
+         * @see ListenerRegistry#unregister(ListenerAdapter)
+         */
+        public @NotNull Transaction unregister(@NotNull ListenerAdapter adapter) {
+            ensureOpen();
+
+            changes.add(removal(adapter));
+            indexChanges.add(() -> listenerIndex.remove(adapter));
+            return this;
+        }
+
+        /**
+         * Applies all collected changes to the {@link ListenerRegistry} at once.
+         *
+         * @return The {@link Registration} handle covering all listeners registered by this transaction.
+         * @throws IllegalStateException If the transaction has already been committed.
+         */
+        public Registration commit() {
+            ensureOpen();
+            committed = true;
+
+            ListenerSnapshot.Editor editor = update(e -> changes.forEach(change -> change.accept(e)));
+            indexChanges.forEach(Runnable::run);
+            return new Registration(ListenerRegistry.this, registeredListeners, editor.ids(registeredListeners), registeredAdapters);
+        }
+
+        /**
+         * Ensures that this transaction has not been committed yet.
+         *
+         * @throws IllegalStateException If the transaction has already been committed.
+         */
+        private void ensureOpen() {
+            if (committed) {
+                throw new IllegalStateException("The transaction has already been committed!");
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,554 @@
+package de.craftsblock.craftscore.event;
+
+import de.craftsblock.craftscore.event.listener.Listener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * An immutable, versioned snapshot of all listeners registered in a {@link ListenerRegistry}.
+ * <p>
+ * Snapshots are never modified once published. Changes are collected by an
+ * {@link Editor} which produces a new snapshot with an incremented version,
+ * which is then atomically swapped into the registry. Dispatching threads
+ * therefore never take a lock and never observe a half-updated registry.
+ * <p>
+ * In addition to the listeners, each snapshot remembers the version in which
+ * the listeners of an event type were last modified. This allows baked
+ * {@link ListenerChain dispatch plans} to detect whether they have been
+ * affected by a newer snapshot without rebuilding them. Changes which affect
+ * the way plans are baked, rather than the listeners of a single event type,
+ * invalidate all plans at once.
+ * <p>
+ * Snapshots are persistent data structures, so that a new snapshot shares everything
+ * with its predecessor except for the parts which have actually been changed:
+ * <ul>
+ *     <li>The event types are stored in a trie indexed by a number which is assigned to
+ *     every event type once, so that publishing a snapshot copies only the path to the
+ *     changed event types instead of the entries of all event types.</li>
+ *     <li>The listeners of an event type and priority are stored in a treap ordered by
+ *     the id they were given when they were added. Adding or removing a listener with
+ *     a known id copies only the path to it, which takes logarithmic time, instead of
+ *     copying and searching all listeners of the event type.</li>
+ * </ul>
+ * Entries of event types whose listeners have all been removed keep nothing but their
+ * version, so that a snapshot never keeps the class of an event type alive which
+ * nobody listens to anymore.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ListenerRegistry
+ * @see ListenerChain
+ * @since 3.8.17
+ */
+final class ListenerSnapshot {
+
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+    private static final ClassValue<Integer> INDICES = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(@NotNull Class<?> type) {
+            return NEXT_INDEX.getAndIncrement();
+        }
+    };
+
+    /**
+     * The initial snapshot, containing no listeners at all.
+     */
+    static final ListenerSnapshot EMPTY = new ListenerSnapshot(0, 0, 0, new Object[WIDTH], 0);
+
+    private final long version;
+    private final long invalidated;
+    private final long nextId;
+    private final Object[] table;
+    private final int shift;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param version     The version of this snapshot.
+     * @param invalidated The version in which all dispatch plans were last invalidated.
+     * @param nextId      The id the next added listener will be given.
+     * @param table       The root of the trie holding the {@link Entry entries} of the event types.
+     * @param shift       The number of index bits below the root of the trie.
+     */
+    private ListenerSnapshot(long version, long invalidated, long nextId, Object[] table, int shift) {
+        this.version = version;
+        this.invalidated = invalidated;
+        this.nextId = nextId;
+        this.table = table;
+        this.shift = shift;
+    }
+
+    /**
+     * Returns the version of this snapshot.
+     *
+     * @return The version.
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * Returns the version of the snapshot in which all dispatch plans were last invalidated.
+     *
+     * @return The version of the last invalidation, or {@code 0} if the plans were never invalidated.
+     */
+    long invalidated() {
+        return invalidated;
+    }
+
+    /**
+     * Returns the listeners registered for exactly the given event type.
+     *
+     * @param type The event type.
+     * @return The listeners of the event type, or {@code null} if there are none.
+     */
+    @Nullable Entry get(@NotNull Class<?> type) {
+        Entry entry = entry(type);
+        return entry != null && !entry.isEmpty() ? entry : null;
+    }
+
+    /**
+     * Returns the version of the snapshot in which the listeners of the given
+     * event type were last modified.
+     *
+     * @param type The event type.
+     * @return The version of the last modification, or {@code 0} if the type was never modified.
+     */
+    long lastModified(@NotNull Class<?> type) {
+        Entry entry = entry(type);
+        return entry != null ? entry.modified : 0;
+    }
+
+    /**
+     * Creates a new {@link Editor} which collects changes based on this snapshot.
+     *
+     * @return The new editor.
+     */
+    @NotNull Editor edit() {
+        return new Editor();
+    }
+
+    /**
+     * Looks up the entry of the given event type in the trie.
+     *
+     * @param type The event type.
+     * @return The entry, or {@code null} if the type was never modified.
+     */
+    private @Nullable Entry entry(@NotNull Class<?> type) {
+        int index = INDICES.get(type);
+        if ((index >>> shift) > MASK) {
+            return null;
+        }
+
+        Object[] node = table;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+
+        return (Entry) node[index & MASK];
+    }
+
+    /**
+     * Returns a copy of a node of the trie in which the given index has been replaced,
+     * sharing all other nodes with the original.
+     *
+     * @param node  The node to copy, or {@code null} if there is none yet.
+     * @param level The number of index bits below the node.
+     * @param index The index to replace.
+     * @param value The new value of the index.
+     * @return The copied node.
+     */
+    private static Object[] store(@Nullable Object[] node, int level, int index, @NotNull Object value) {
+        Object[] copy = node != null ? node.clone() : new Object[WIDTH];
+        int slot = (index >>> level) & MASK;
+        copy[slot] = level == 0 ? value : store((Object[]) copy[slot], level - BITS, index, value);
+        return copy;
+    }
+
+    /**
+     * The listeners registered for exactly one event type, grouped by priority.
+     */
+    static final class Entry {
+
+        private final Node[] roots;
+        private final long modified;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param roots    The treap of listeners per priority, indexed by the ordinal of the priority.
+         * @param modified The version of the snapshot in which the listeners were last modified.
+         */
+        private Entry(Node[] roots, long modified) {
+            this.roots = roots;
+            this.modified = modified;
+        }
+
+        /**
+         * Adds the listeners of the given priority to the collection, in the order in which they were added.
+         *
+         * @param priority The priority of the listeners.
+         * @param into     The collection to add the listeners to.
+         */
+        void collect(@NotNull EventPriority priority, @NotNull Collection<? super Listener> into) {
+            Node root = roots[priority.ordinal()];
+            if (root != null) {
+                root.collect(into);
+            }
+        }
+
+        /**
+         * Checks whether this entry has no listeners at all.
+         *
+         * @return {@code true} if there are no listeners, {@code false} otherwise.
+         */
+        private boolean isEmpty() {
+            for (Node root : roots) {
+                if (root != null) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * A node of a persistent treap of listeners, which is a binary search tree ordered by the
+     * ids of the listeners and a heap ordered by ranks derived from these ids. Nodes are never
+     * modified, changes copy the path from the root to the changed node instead.
+     */
+    private static final class Node {
+
+        private final long id;
+        private final int rank;
+        private final Listener listener;
+        private final Node left;
+        private final Node right;
+
+        /**
+         * Creates a new leaf node.
+         *
+         * @param id       The id of the listener.
+         * @param listener The listener.
+         */
+        private Node(long id, @NotNull Listener listener) {
+            this(id, rank(id), listener, null, null);
+        }
+
+        /**
+         * Creates a new node.
+         *
+         * @param id       The id of the listener.
+         * @param rank     The rank of the node in the heap.
+         * @param listener The listener.
+         * @param left     The subtree of listeners with smaller ids.
+         * @param right    The subtree of listeners with larger ids.
+         */
+        private Node(long id, int rank, @NotNull Listener listener, @Nullable Node left, @Nullable Node right) {
+            this.id = id;
+            this.rank = rank;
+            this.listener = listener;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Returns this node with other subtrees, or this node itself if the subtrees did not change.
+         *
+         * @param left  The new left subtree.
+         * @param right The new right subtree.
+         * @return The node with the given subtrees.
+         */
+        private @NotNull Node with(@Nullable Node left, @Nullable Node right) {
+            return left == this.left && right == this.right ? this : new Node(id, rank, listener, left, right);
+        }
+
+        /**
+         * Adds all listeners of the subtree of this node to the collection, ordered by their ids.
+         *
+         * @param into The collection to add the listeners to.
+         */
+        private void collect(@NotNull Collection<? super Listener> into) {
+            if (left != null) {
+                left.collect(into);
+            }
+
+            into.add(listener);
+
+            if (right != null) {
+                right.collect(into);
+            }
+        }
+
+        /**
+         * Joins two treaps, where every id of the first treap is smaller than every id of the second one.
+         *
+         * @param first  The treap with the smaller ids.
+         * @param second The treap with the larger ids.
+         * @return The joined treap.
+         */
+        private static @Nullable Node merge(@Nullable Node first, @Nullable Node second) {
+            if (first == null) {
+                return second;
+            }
+
+            if (second == null) {
+                return first;
+            }
+
+            return first.rank >= second.rank
+                    ? first.with(first.left, merge(first.right, second))
+                    : second.with(merge(first, second.left), second.right);
+        }
+
+        /**
+         * Removes exactly the given listener from a treap.
+         *
+         * @param node     The root of the treap.
+         * @param id       The id of the listener.
+         * @param listener The listener to remove.
+         * @return The root of the treap without the listener, which is the same root if it was not present.
+         */
+        private static @Nullable Node remove(@Nullable Node node, long id, @NotNull Listener listener) {
+            if (node == null) {
+                return null;
+            }
+
+            if (id < node.id) {
+                return node.with(remove(node.left, id, listener), node.right);
+            }
+
+            if (id > node.id) {
+                return node.with(node.left, remove(node.right, id, listener));
+            }
+
+            return node.listener == listener ? merge(node.left, node.right) : node;
+        }
+
+        /**
+         * Removes all listeners matching the given filter from a treap.
+         *
+         * @param node   The root of the treap.
+         * @param filter The filter selecting the listeners which should be removed.
+         * @return The root of the treap without the listeners, which is the same root if none matched.
+         */
+        private static @Nullable Node removeIf(@Nullable Node node, @NotNull Predicate<Listener> filter) {
+            if (node == null) {
+                return null;
+            }
+
+            Node left = removeIf(node.left, filter);
+            Node right = removeIf(node.right, filter);
+            return filter.test(node.listener) ? merge(left, right) : node.with(left, right);
+        }
+
+        /**
+         * Derives a well distributed rank from the id of a listener, which keeps the treap
+         * balanced although listeners are added in the order of their ids.
+         *
+         * @param id The id of the listener.
+         * @return The rank.
+         */
+        private static int rank(long id) {
+            long z = id * 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return (int) (z ^ (z >>> 31));
+        }
+
+    }
+
+    /**
+     * Collects changes to a {@link ListenerSnapshot} and produces a new snapshot from them.
+     * <p>
+     * Every added listener is given an id, which is larger than the id of every listener
+     * added before. Listeners can be removed by their id without searching the listeners
+     * of their event type, so the id should be kept if the listener is going to be removed
+     * again, see {@link #ids(List)}.
+     */
+    final class Editor {
+
+        private final Map<Class<?>, Draft> drafts = new HashMap<>();
+        private final Map<Listener, Long> ids = new IdentityHashMap<>();
+        private long nextId = ListenerSnapshot.this.nextId;
+        private boolean invalidate = false;
+
+        /**
+         * Private constructor, editors are created through {@link ListenerSnapshot#edit()}.
+         */
+        private Editor() {
+        }
+
+        /**
+         * Adds the given listener to the snapshot.
+         *
+         * @param listener The listener to add.
+         */
+        void add(@NotNull Listener listener) {
+            long id = nextId++;
+            ids.put(listener, id);
+
+            Draft draft = draft(listener.getEventType());
+            int priority = listener.getPriority().ordinal();
+            draft.roots[priority] = Node.merge(draft.roots[priority], new Node(id, listener));
+            draft.changed = true;
+        }
+
+        /**
+         * Removes exactly the given listener from the snapshot, if it is present.
+         *
+         * @param listener The listener to remove.
+         * @param id       The id the listener was given when it was added.
+         */
+        void remove(@NotNull Listener listener, long id) {
+            Draft draft = draft(listener.getEventType());
+            int priority = listener.getPriority().ordinal();
+
+            Node root = draft.roots[priority];
+            Node removed = Node.remove(root, id, listener);
+            if (removed != root) {
+                draft.roots[priority] = removed;
+                draft.changed = true;
+            }
+        }
+
+        /**
+         * Removes all listeners of the given event type matching the given filter.
+         *
+         * @param type   The event type to remove listeners from.
+         * @param filter The filter selecting the listeners which should be removed.
+         */
+        void remove(@NotNull Class<?> type, @NotNull Predicate<Listener> filter) {
+            Draft draft = draft(type);
+            for (int priority = 0; priority < draft.roots.length; priority++) {
+                Node root = draft.roots[priority];
+                Node removed = Node.removeIf(root, filter);
+                if (removed != root) {
+                    draft.roots[priority] = removed;
+                    draft.changed = true;
+                }
+            }
+        }
+
+        /**
+         * Invalidates all dispatch plans, regardless of the event types they were built from.
+         */
+        void invalidateAll() {
+            invalidate = true;
+        }
+
+        /**
+         * Returns the ids the given listeners were given when they were added by this editor.
+         *
+         * @param listeners The listeners added by this editor.
+         * @return The ids of the listeners, in the same order.
+         * @throws IllegalArgumentException If one of the listeners has not been added by this editor.
+         */
+        long @NotNull [] ids(@NotNull List<Listener> listeners) {
+            long[] result = new long[listeners.size()];
+            for (int i = 0; i < result.length; i++) {
+                Long id = ids.get(listeners.get(i));
+                if (id == null) {
+                    throw new IllegalArgumentException("The listener %s has not been added by this editor!".formatted(listeners.get(i)));
+                }
+
+                result[i] = id;
+            }
+
+            return result;
+        }
+
+        /**
+         * Returns the draft of the listeners of the given event type, creating it from the
+         * entry of the original snapshot if necessary. Only the roots of the treaps are copied.
+         *
+         * @param type The event type.
+         * @return The draft of the listeners.
+         */
+        private @NotNull Draft draft(@NotNull Class<?> type) {
+            return drafts.computeIfAbsent(type, t -> {
+                Entry entry = entry(t);
+                return new Draft(entry != null ? entry.roots.clone() : new Node[PRIORITIES.length]);
+            });
+        }
+
+        /**
+         * Builds the new snapshot from the collected changes.
+         *
+         * @return The new snapshot, or the original snapshot if nothing has been changed.
+         */
+        @NotNull ListenerSnapshot build() {
+            long nextVersion = version + 1;
+
+            Object[] nextTable = table;
+            int nextShift = shift;
+            boolean changed = false;
+
+            for (Map.Entry<Class<?>, Draft> entry : drafts.entrySet()) {
+                Draft draft = entry.getValue();
+                if (!draft.changed) {
+                    continue;
+                }
+
+                int index = INDICES.get(entry.getKey());
+                while ((index >>> nextShift) > MASK) {
+                    Object[] root = new Object[WIDTH];
+                    root[0] = nextTable;
+                    nextTable = root;
+                    nextShift += BITS;
+                }
+
+                nextTable = store(nextTable, nextShift, index, new Entry(draft.roots.clone(), nextVersion));
+                changed = true;
+            }
+
+            if (!changed && !invalidate) {
+                return ListenerSnapshot.this;
+            }
+
+            return new ListenerSnapshot(
+                    nextVersion,
+                    invalidate ? nextVersion : invalidated,
+                    nextId,
+                    nextTable,
+                    nextShift
+            );
+        }
+
+    }
+
+    /**
+     * The listeners of a single event type while they are being edited.
+     */
+    private static final class Draft {
+
+        private final Node[] roots;
+        private boolean changed = false;
+
+        /**
+         * Creates a new draft.
+         *
+         * @param roots The mutable copy of the roots of the treaps.
+         */
+        private Draft(Node[] roots) {
+            this.roots = roots;
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.craftsblock.craftscore.event;
+
+import de.craftsblock.craftscore.event.listener.Listener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A handle to the listeners added by a single registration on a {@link ListenerRegistry}.
+ * <p>
+ * Closing the handle removes exactly the listeners of this registration. Unlike
+ * {@link ListenerRegistry#unregister(ListenerAdapter)} no handler methods have to be
+ * resolved. Each listener is looked up by the id it was given when it was registered,
+ * so removing it takes logarithmic time in the number of listeners of its event type,
+ * and the listeners of other event types are not copied at all. The affected dispatch
+ * plans are rebaked on their next use. This makes registrations well suited for
+ * short-lived listeners, including functional listeners which can not be unregistered
+ * otherwise.
+ *
+ * <pre>{@code
+ * try (Registration registration = registry.register(MyEvent.class, event -> ...)) {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ListenerRegistry
+ * @since 3.8.17
+ */
+public final class Registration implements AutoCloseable {
+
+    private final ListenerRegistry registry;
+    private final List<Listener> listeners;
+    private final long[] ids;
+    private final List<ListenerAdapter> adapters;
+    private final AtomicBoolean active = new AtomicBoolean(true);
+
+    /**
+     * Creates a new registration handle.
+     *
+     * @param registry  The registry the listeners have been registered on.
+     * @param listeners The registered listeners.
+     * @param ids       The ids the listeners have been given by the registry, in the same order.
+     * @param adapters  The registered listener adapters, if any.
+     */
+    Registration(@NotNull ListenerRegistry registry, @NotNull List<Listener> listeners, long @NotNull [] ids,
+                 @NotNull List<ListenerAdapter> adapters) {
+        this.registry = registry;
+        this.listeners = List.copyOf(listeners);
+        this.ids = ids;
+        this.adapters = List.copyOf(adapters);
+    }
+
+    /**
+     * Returns the listeners added by this registration.
+     *
+     * @return The registered listeners.
+     */
+    public @NotNull @Unmodifiable List<Listener> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Returns the ids the listeners of this registration have been given by the registry.
+     *
+     * @return The ids, in the same order as the {@link #getListeners() listeners}.
+     */
+    long @NotNull [] getIds() {
+        return ids;
+    }
+
+    /**
+     * Returns the listener adapters added by this registration.
+     *
+     * @return The registered listener adapters, empty for functional listeners.
+     */
+    @NotNull @Unmodifiable List<ListenerAdapter> getAdapters() {
+        return adapters;
+    }
+
+    /**
+     * Checks whether this registration has not been closed yet.
+     *
+     * @return {@code true} if the registration is still active, {@code false} otherwise.
+     */
+    public boolean isActive() {
+        return active.get();
+    }
+
+    /**
+     * Removes the listeners of this registration from the registry.
+     * Closing an already closed registration has no effect.
+     */
+    @Override
+    public void close() {
+        if (!active.compareAndSet(true, false)) {
+            return;
+        }
+
+        registry.unregister(this);
+    }
+
+}
@@ -0,0 +1,57 @@
+package de.craftsblock.craftscore.event;
+
+/**
+ * An {@link Event} whose instances can be reused for many dispatches, so that frequently
+ * fired events do not allocate a new instance for every dispatch.
+ * <p>
+ * Reusable events are acquired from an {@link EventPool} and released back to it once
+ * they are no longer needed, which resets their state. Synchronously dispatched events
+ * are best released with a try-with-resources statement:
+ *
+ * <pre>{@code
+ * try (PlayerMoveEvent event = MOVE_EVENTS.acquire()) {
+ *     event.setPlayer(player);
+ *     registry.call(event);
+ *
+ *     if (event.isCancelled()) {
+ *         ...
+ *     }
+ * }
+ * }</pre>
+ * <p>
+ * Events handed to a {@link de.craftsblock.craftscore.event.queue.CallQueue CallQueue} or a
+ * {@link de.craftsblock.craftscore.event.ring.RingDispatcher RingDispatcher} are owned by
+ * them afterwards and are released automatically once they have been dispatched, dropped
+ * or merged into another event. They must not be released by the caller in that case, and
+ * the futures returned by the queue complete with {@code null} instead of the event.
+ * <p>
+ * Listeners must not keep references to a reusable event beyond their invocation, as the
+ * instance is handed out again after it has been released.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventPool
+ * @since 3.8.17
+ */
+public interface ReusableEvent extends AutoCloseable {
+
+    /**
+     * Resets the state of this event to the state of a newly created instance. Called by
+     * the {@link EventPool} whenever the event is released.
+     * <p>
+     * The cancellation state of {@link Cancellable} events is reset by the pool itself.
+     */
+    void reset();
+
+    /**
+     * Releases this event back to the {@link EventPool} it has been acquired from. If the
+     * event has not been acquired from a pool, this does nothing.
+     *
+     * @throws IllegalStateException If the event has already been released.
+     */
+    @Override
+    default void close() {
+        EventPool.release(this);
+    }
+
+}
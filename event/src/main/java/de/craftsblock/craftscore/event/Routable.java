@@ -0,0 +1,35 @@
+package de.craftsblock.craftscore.event;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The {@link Routable} interface is used to mark events which carry a routing key.
+ * <p>
+ * Listeners can be registered for a specific routing key, either through
+ * {@link EventHandler#key()} or one of the keyed {@code register} methods of the
+ * {@link ListenerRegistry}. Such listeners are only called for events whose routing
+ * key is {@link Object#equals(Object) equal} to the key they have been registered
+ * for. The dispatch plans index keyed listeners by their key, so that an event
+ * only visits the listeners of its own key instead of every listener of its type.
+ *
+ * <p>Listeners without a key are called for every event, regardless of its routing
+ * key. Keyed listeners are never called for events which do not implement this
+ * interface or which return {@code null} as their routing key.</p>
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventHandler#key()
+ * @since 3.8.17
+ */
+public interface Routable {
+
+    /**
+     * Returns the routing key of the event. The key must not change while
+     * the event is being dispatched.
+     *
+     * @return The routing key, or {@code null} if the event should only be
+     * delivered to listeners without a key.
+     */
+    @Nullable Object getRoutingKey();
+
+}
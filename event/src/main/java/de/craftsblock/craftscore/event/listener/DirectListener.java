@@ -5,7 +5,11 @@ import de.craftsblock.craftscore.event.EventPriority;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * A {@link Listener} implementation that directly delegates event handling
@@ -14,22 +18,32 @@ import java.util.function.Consumer;
  * This listener is primarily used for programmatic event registration where
  * no reflection-based method invocation is required. It acts as a lightweight
  * wrapper around a functional callback.
+ * <p>
+ * A direct listener can optionally be restricted to a routing key and a filter.
+ * The routing key is evaluated by the dispatch plan, while the filter is tested
+ * right before the consumer is invoked.
+ * <p>
+ * Listeners created with {@link #batched(Class, Consumer, Object, Predicate, EventPriority, boolean) batched}
+ * receive all events of a {@link de.craftsblock.craftscore.event.ListenerRegistry#callAll(java.util.Collection)
+ * batch dispatch} in a single list, while single events are handed over as a list of one event.
  *
- * @param <T> The specific type of {@link Event} handled by this listener
+ * @param <T> The type of the events handled by this listener, either an {@link Event}
+ * subclass or an interface implemented by events
  * @author Philipp Maywald
  * @author CraftsBlock
  * @see Listener
  * @since 3.8.13
  */
-public final class DirectListener<T extends Event> implements Listener {
+public final class DirectListener<T> implements Listener {
 
-    private final Class<? extends Event> eventType;
+    private final Class<?> eventType;
     private final Consumer<T> consumer;
+    private final @Nullable Consumer<List<T>> batchConsumer;
+    private final @Nullable Object routingKey;
+    private final @Nullable Predicate<? super T> filter;
     private final EventPriority priority;
     private final boolean ignoreWhenCancelled;
 
-    private Listener next = null;
-
     /**
      * Creates a new direct listener for the given event type.
      *
@@ -37,19 +51,104 @@ public final class DirectListener<T extends Event> implements Listener {
      * @param consumer            The consumer that will process the event.
      * @param priority            The execution priority of this listener.
      * @param ignoreWhenCancelled Whether this listener should ignore cancelled events.
+     * @throws IllegalArgumentException If the event type is neither a subclass of {@link Event} nor an interface.
+     */
+    public DirectListener(
+            Class<?> eventType,
+            Consumer<T> consumer,
+            EventPriority priority,
+            boolean ignoreWhenCancelled
+    ) {
+        this(eventType, consumer, null, null, priority, ignoreWhenCancelled);
+    }
+
+    /**
+     * Creates a new direct listener for the given event type, which is restricted
+     * to a routing key and a filter.
+     *
+     * @param eventType           The class of the event this listener handles.
+     * @param consumer            The consumer that will process the event.
+     * @param routingKey          The routing key of the events to handle, or {@code null} to handle all events.
+     * @param filter              The filter events have to pass, or {@code null} to handle all events.
+     * @param priority            The execution priority of this listener.
+     * @param ignoreWhenCancelled Whether this listener should ignore cancelled events.
+     * @throws IllegalArgumentException If the event type is neither a subclass of {@link Event} nor an interface.
+     * @since 3.8.17
      */
     public DirectListener(
-            Class<? extends Event> eventType,
+            Class<?> eventType,
             Consumer<T> consumer,
+            @Nullable Object routingKey,
+            @Nullable Predicate<? super T> filter,
             EventPriority priority,
             boolean ignoreWhenCancelled
     ) {
+        this(eventType, consumer, null, routingKey, filter, priority, ignoreWhenCancelled);
+    }
+
+    /**
+     * Creates a new direct listener for the given event type.
+     *
+     * @param eventType           The class of the event this listener handles.
+     * @param consumer            The consumer that will process single events.
+     * @param batchConsumer       The consumer that will process batches of events, or {@code null} to process them one by one.
+     * @param routingKey          The routing key of the events to handle, or {@code null} to handle all events.
+     * @param filter              The filter events have to pass, or {@code null} to handle all events.
+     * @param priority            The execution priority of this listener.
+     * @param ignoreWhenCancelled Whether this listener should ignore cancelled events.
+     * @throws IllegalArgumentException If the event type is neither a subclass of {@link Event} nor an interface.
+     */
+    private DirectListener(
+            Class<?> eventType,
+            Consumer<T> consumer,
+            @Nullable Consumer<List<T>> batchConsumer,
+            @Nullable Object routingKey,
+            @Nullable Predicate<? super T> filter,
+            EventPriority priority,
+            boolean ignoreWhenCancelled
+    ) {
+        if (!eventType.isInterface() && !Event.class.isAssignableFrom(eventType)) {
+            throw new IllegalArgumentException("The event type %s is neither a subclass of %s nor an interface!".formatted(
+                    eventType.getName(), Event.class.getName()
+            ));
+        }
+
         this.eventType = eventType;
         this.consumer = consumer;
+        this.batchConsumer = batchConsumer;
+        this.routingKey = routingKey;
+        this.filter = filter;
         this.priority = priority;
         this.ignoreWhenCancelled = ignoreWhenCancelled;
     }
 
+    /**
+     * Creates a new direct listener for the given event type, which receives batches of events.
+     * Events dispatched one at a time are handed to the consumer as a list of one event.
+     *
+     * @param eventType           The class of the event this listener handles.
+     * @param consumer            The consumer that will process the batches of events.
+     * @param routingKey          The routing key of the events to handle, or {@code null} to handle all events.
+     * @param filter              The filter events have to pass, or {@code null} to handle all events.
+     * @param priority            The execution priority of this listener.
+     * @param ignoreWhenCancelled Whether this listener should ignore cancelled events.
+     * @param <T>                 The type of the events handled by the listener.
+     * @return The created listener.
+     * @throws IllegalArgumentException If the event type is neither a subclass of {@link Event} nor an interface.
+     * @since 3.8.17
+     */
+    public static <T> @NotNull DirectListener<T> batched(
+            Class<?> eventType,
+            Consumer<List<T>> consumer,
+            @Nullable Object routingKey,
+            @Nullable Predicate<? super T> filter,
+            EventPriority priority,
+            boolean ignoreWhenCancelled
+    ) {
+        return new DirectListener<>(eventType, event -> consumer.accept(List.of(event)), consumer,
+                routingKey, filter, priority, ignoreWhenCancelled);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -59,17 +158,48 @@ public final class DirectListener<T extends Event> implements Listener {
     @Override
     @SuppressWarnings("unchecked")
     public void call(Event event) {
-        this.consumer.accept((T) event);
+        T typed = (T) event;
+        if (filter != null && !filter.test(typed)) {
+            return;
+        }
+
+        this.consumer.accept(typed);
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * If this listener has a batch consumer, the events passing the filter are handed
+     * to it in a single list.
      *
-     * @return {@inheritDoc}
+     * @param events {@inheritDoc}
+     * @since 3.8.17
      */
     @Override
-    public Class<? extends Event> getEventType() {
-        return eventType;
+    @SuppressWarnings("unchecked")
+    public void callAll(List<? extends Event> events) {
+        if (batchConsumer == null) {
+            Listener.super.callAll(events);
+            return;
+        }
+
+        List<T> typed = (List<T>) events;
+        if (filter != null) {
+            List<T> passed = new ArrayList<>(typed.size());
+            for (T event : typed) {
+                if (filter.test(event)) {
+                    passed.add(event);
+                }
+            }
+
+            if (passed.size() < typed.size()) {
+                typed = Collections.unmodifiableList(passed);
+            }
+        }
+
+        if (!typed.isEmpty()) {
+            batchConsumer.accept(typed);
+        }
     }
 
     /**
@@ -78,18 +208,29 @@ public final class DirectListener<T extends Event> implements Listener {
      * @return {@inheritDoc}
      */
     @Override
-    public @Nullable Listener getNext() {
-        return next;
+    public Class<?> getEventType() {
+        return eventType;
     }
 
     /**
      * {@inheritDoc}
      *
-     * @param next {@inheritDoc}
+     * @return {@inheritDoc}
+     * @since 3.8.17
      */
     @Override
-    public void setNext(@Nullable Listener next) {
-        this.next = next;
+    public @Nullable Object getRoutingKey() {
+        return routingKey;
+    }
+
+    /**
+     * Returns the filter events have to pass before they are handed to the consumer.
+     *
+     * @return The filter, or {@code null} if all events are handled.
+     * @since 3.8.17
+     */
+    public @Nullable Predicate<? super T> getFilter() {
+        return filter;
     }
 
     /**
@@ -101,6 +242,16 @@ public final class DirectListener<T extends Event> implements Listener {
         return consumer;
     }
 
+    /**
+     * Returns the consumer responsible for handling batches of events.
+     *
+     * @return The batch consumer, or {@code null} if batches are handled event by event.
+     * @since 3.8.17
+     */
+    public @Nullable Consumer<List<T>> getBatchConsumer() {
+        return batchConsumer;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -121,4 +272,16 @@ public final class DirectListener<T extends Event> implements Listener {
         return ignoreWhenCancelled;
     }
 
+    /**
+     * Returns a human readable representation of this listener, which
+     * is the class name of the underlying consumer or batch consumer.
+     *
+     * @return The string representation.
+     * @since 3.8.17
+     */
+    @Override
+    public String toString() {
+        return (batchConsumer != null ? batchConsumer : consumer).getClass().getName();
+    }
+
 }
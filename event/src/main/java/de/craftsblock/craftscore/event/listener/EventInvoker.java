@@ -0,0 +1,28 @@
+package de.craftsblock.craftscore.event.listener;
+
+import de.craftsblock.craftscore.event.Event;
+
+/**
+ * A functional interface which invokes a single event handler method.
+ * <p>
+ * Instances are usually spun at runtime by {@link EventInvokers} so that the
+ * invocation of an event handler compiles down to a plain virtual call. The
+ * {@link ReflectionListener} delegates all of its invocations to an invoker.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventInvokers
+ * @since 3.8.17
+ */
+@FunctionalInterface
+public interface EventInvoker {
+
+    /**
+     * Invokes the underlying event handler with the given event.
+     *
+     * @param event The event to pass to the handler.
+     * @throws Throwable If the handler throws any exception.
+     */
+    void invoke(Event event) throws Throwable;
+
+}
@@ -0,0 +1,153 @@
+package de.craftsblock.craftscore.event.listener;
+
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+/**
+ * Factory for {@link EventInvoker} instances backed by event handler methods.
+ * <p>
+ * Whenever possible, a hidden class implementing {@link EventInvoker} is spun for
+ * the handler method using the {@link LambdaMetafactory}. The resulting invoker
+ * calls the handler directly and can therefore be fully inlined by the JIT.
+ * <p>
+ * If the access rules prevent spinning such a class (e.g. because the declaring
+ * class lives in a different module or class loader than this library), the
+ * factory falls back to an invoker that delegates to a bound {@link MethodHandle}.
+ * <p>
+ * The expensive part, looking up the method and spinning the class, is done once per
+ * handler method by {@link #factory(Method)}. The returned factory only binds the
+ * resulting invoker to a listener instance.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventInvoker
+ * @since 3.8.17
+ */
+public final class EventInvokers {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Event.class);
+    private static final MethodType BOUND_INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Event.class);
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(EventInvoker.class, Object.class);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private EventInvokers() {
+    }
+
+    /**
+     * Creates an {@link EventInvoker} for the given event handler method.
+     *
+     * @param method The handler method which accepts the event as its only parameter.
+     * @param owner  The instance owning the method, ignored for static methods.
+     * @return The created {@link EventInvoker}.
+     * @throws IllegalAccessException If the method can not be accessed at all.
+     */
+    public static @NotNull EventInvoker create(@NotNull Method method, @Nullable Object owner) throws IllegalAccessException {
+        return factory(method).apply(owner);
+    }
+
+    /**
+     * Creates a reusable factory, which binds {@link EventInvoker} instances for
+     * the given event handler method to listener instances.
+     * <p>
+     * For static methods the factory ignores the passed instance and always
+     * returns the same invoker.
+     *
+     * @param method The handler method which accepts the event as its only parameter.
+     * @return The factory binding invokers to listener instances.
+     * @throws IllegalAccessException If the method can not be accessed at all.
+     * @since 3.8.17
+     */
+    public static @NotNull Function<Object, EventInvoker> factory(@NotNull Method method) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(
+                method.getDeclaringClass(),
+                MethodHandles.lookup()
+        );
+
+        MethodHandle handle = lookup.unreflect(method);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        if (lookup.hasFullPrivilegeAccess()) {
+            try {
+                return spin(lookup, method, handle, isStatic);
+            } catch (Throwable ignored) {
+                // Fall through to the method handle based invoker
+            }
+        }
+
+        if (isStatic) {
+            EventInvoker invoker = new HandleInvoker(handle.asType(INVOKER_TYPE));
+            return owner -> invoker;
+        }
+
+        MethodHandle unbound = handle.asType(BOUND_INVOKER_TYPE);
+        return owner -> new HandleInvoker(unbound.bindTo(owner));
+    }
+
+    /**
+     * Spins a hidden class implementing {@link EventInvoker} which directly
+     * calls the given handler method, and returns a factory instantiating it.
+     *
+     * @param lookup   A lookup with full privilege access on the declaring class.
+     * @param method   The handler method.
+     * @param handle   The direct method handle of the handler method.
+     * @param isStatic Whether the handler method is static.
+     * @return The factory binding the spun {@link EventInvoker} to listener instances.
+     * @throws Throwable If the lambda meta factory could not link the invoker.
+     */
+    private static Function<Object, EventInvoker> spin(MethodHandles.Lookup lookup, Method method,
+                                                       MethodHandle handle, boolean isStatic) throws Throwable {
+        MethodType factoryType = isStatic
+                ? MethodType.methodType(EventInvoker.class)
+                : MethodType.methodType(EventInvoker.class, method.getDeclaringClass());
+
+        CallSite site = LambdaMetafactory.metafactory(
+                lookup, "invoke", factoryType,
+                INVOKER_TYPE, handle,
+                MethodType.methodType(void.class, method.getParameterTypes()[0])
+        );
+
+        if (isStatic) {
+            EventInvoker invoker = (EventInvoker) site.getTarget().invoke();
+            return owner -> invoker;
+        }
+
+        MethodHandle factory = site.getTarget().asType(FACTORY_TYPE);
+        return owner -> {
+            try {
+                return (EventInvoker) factory.invokeExact(owner);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not bind invoker for %s".formatted(method), e);
+            }
+        };
+    }
+
+    /**
+     * An {@link EventInvoker} delegating to a {@link MethodHandle} which
+     * has been adapted to the {@link EventInvoker} signature.
+     *
+     * @param handle The adapted method handle.
+     */
+    private record HandleInvoker(MethodHandle handle) implements EventInvoker {
+
+        /**
+         * {@inheritDoc}
+         *
+         * @param event {@inheritDoc}
+         * @throws Throwable {@inheritDoc}
+         */
+        @Override
+        public void invoke(Event event) throws Throwable {
+            handle.invokeExact(event);
+        }
+
+    }
+
+}
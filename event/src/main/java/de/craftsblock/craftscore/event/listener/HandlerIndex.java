@@ -0,0 +1,41 @@
+package de.craftsblock.craftscore.event.listener;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.List;
+
+/**
+ * Describes the {@link HandlerMethod handler methods} of a single
+ * {@link de.craftsblock.craftscore.event.ListenerAdapter ListenerAdapter} class.
+ * <p>
+ * Implementations are generated at compile time by the event annotation processor
+ * for every adapter class with {@link de.craftsblock.craftscore.event.EventHandler
+ * EventHandler} methods. They are named like the binary name of the adapter class
+ * followed by {@code $$EventHandlers} and need a public no-argument constructor. When an
+ * adapter is registered, the {@link de.craftsblock.craftscore.event.ListenerRegistry
+ * ListenerRegistry} uses the generated index of its class instead of scanning the class
+ * with reflection, and the generated invokers call the handler methods directly.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see HandlerMethod
+ * @since 3.8.17
+ */
+public interface HandlerIndex {
+
+    /**
+     * Returns the adapter class described by this index.
+     *
+     * @return The adapter class.
+     */
+    @NotNull Class<?> getAdapterType();
+
+    /**
+     * Returns the handler methods of the adapter class, including the inherited ones.
+     *
+     * @return The handler methods.
+     */
+    @NotNull @Unmodifiable List<HandlerMethod> getHandlers();
+
+}
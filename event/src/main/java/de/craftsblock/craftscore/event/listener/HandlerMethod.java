@@ -0,0 +1,217 @@
+package de.craftsblock.craftscore.event.listener;
+
+import de.craftsblock.craftscore.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Describes a single event handler method independently of any listener instance.
+ * <p>
+ * A {@code HandlerMethod} holds everything which can be derived from the method
+ * itself, including the factory for its {@link EventInvoker}. It is created once per
+ * handler method and shared by all {@link ReflectionListener} instances created for it,
+ * so that creating a listener for another instance only binds the invoker.
+ * <p>
+ * Handler methods of adapters which have been compiled with the event annotation
+ * processor are described by a generated {@link HandlerIndex} instead. These
+ * descriptions carry a generated invoker factory, which calls the handler directly,
+ * and only look up the reflective method if it is explicitly requested.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ReflectionListener
+ * @since 3.8.17
+ */
+public final class HandlerMethod {
+
+    private final Class<?> eventType;
+    private final Class<?> declaringClass;
+    private final String name;
+    private final @Nullable Object routingKey;
+    private final EventPriority priority;
+    private final boolean ignoreWhenCancelled;
+    private final Function<Object, EventInvoker> invokerFactory;
+
+    private volatile Method method;
+
+    /**
+     * Creates a new handler method description.
+     *
+     * @param eventType           The class of the event handled by the method.
+     * @param method              The reflective method to invoke when the event is fired.
+     * @param priority            The execution priority of the handler.
+     * @param ignoreWhenCancelled Whether the handler should ignore cancelled events.
+     * @throws IllegalAccessException If the method can not be accessed.
+     */
+    public HandlerMethod(
+            Class<?> eventType,
+            Method method,
+            EventPriority priority,
+            boolean ignoreWhenCancelled
+    ) throws IllegalAccessException {
+        this(eventType, method, null, priority, ignoreWhenCancelled);
+    }
+
+    /**
+     * Creates a new handler method description, which is restricted to a routing key.
+     *
+     * @param eventType           The class of the event handled by the method.
+     * @param method              The reflective method to invoke when the event is fired.
+     * @param routingKey          The routing key of the events to handle, or {@code null} to handle all events.
+     * @param priority            The execution priority of the handler.
+     * @param ignoreWhenCancelled Whether the handler should ignore cancelled events.
+     * @throws IllegalAccessException If the method can not be accessed.
+     */
+    public HandlerMethod(
+            Class<?> eventType,
+            Method method,
+            @Nullable Object routingKey,
+            EventPriority priority,
+            boolean ignoreWhenCancelled
+    ) throws IllegalAccessException {
+        this.eventType = eventType;
+        this.declaringClass = method.getDeclaringClass();
+        this.name = method.getName();
+        this.method = method;
+        this.routingKey = routingKey;
+        this.priority = priority;
+        this.ignoreWhenCancelled = ignoreWhenCancelled;
+
+        method.setAccessible(true);
+        this.invokerFactory = EventInvokers.factory(method);
+    }
+
+    /**
+     * Creates a new handler method description with a given invoker factory. This constructor
+     * is used by the {@link HandlerIndex handler indices} generated by the event annotation
+     * processor and does not use reflection.
+     *
+     * @param eventType           The class of the event handled by the method.
+     * @param declaringClass      The class declaring the method.
+     * @param name                The name of the method.
+     * @param routingKey          The routing key of the events to handle, or {@code null} to handle all events.
+     * @param priority            The execution priority of the handler.
+     * @param ignoreWhenCancelled Whether the handler should ignore cancelled events.
+     * @param invokerFactory      The factory binding invokers of the method to listener instances.
+     * @since 3.8.17
+     */
+    public HandlerMethod(
+            Class<?> eventType,
+            Class<?> declaringClass,
+            String name,
+            @Nullable Object routingKey,
+            EventPriority priority,
+            boolean ignoreWhenCancelled,
+            Function<Object, EventInvoker> invokerFactory
+    ) {
+        this.eventType = eventType;
+        this.declaringClass = declaringClass;
+        this.name = name;
+        this.routingKey = routingKey;
+        this.priority = priority;
+        this.ignoreWhenCancelled = ignoreWhenCancelled;
+        this.invokerFactory = invokerFactory;
+    }
+
+    /**
+     * Binds the {@link EventInvoker} of this handler to the given instance.
+     *
+     * @param owner The instance owning the method, ignored for static methods.
+     * @return The bound invoker.
+     */
+    public @NotNull EventInvoker bind(Object owner) {
+        return invokerFactory.apply(owner);
+    }
+
+    /**
+     * Returns the event type handled by the method.
+     *
+     * @return The class of the handled event.
+     */
+    public Class<?> getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the class declaring the method.
+     *
+     * @return The declaring class.
+     * @since 3.8.17
+     */
+    public @NotNull Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    /**
+     * Returns the name of the method.
+     *
+     * @return The method name.
+     * @since 3.8.17
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the underlying reflective method. If this handler has been described by a
+     * generated {@link HandlerIndex}, the method is looked up on the first call.
+     *
+     * @return The handler {@link Method} instance.
+     * @throws IllegalStateException If the method can no longer be found.
+     */
+    public @NotNull Method getMethod() {
+        Method resolved = method;
+        if (resolved != null) {
+            return resolved;
+        }
+
+        try {
+            return method = declaringClass.getDeclaredMethod(name, eventType);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Could not find handler method %s".formatted(this), e);
+        }
+    }
+
+    /**
+     * Returns the routing key the handler is restricted to.
+     *
+     * @return The routing key, or {@code null} if the handler receives all events of its type.
+     */
+    public @Nullable Object getRoutingKey() {
+        return routingKey;
+    }
+
+    /**
+     * Returns the execution priority of the handler.
+     *
+     * @return The {@link EventPriority} of the handler.
+     */
+    public @NotNull EventPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Indicates whether the handler should ignore events that have been cancelled.
+     *
+     * @return {@code true} if cancelled events should be ignored, otherwise {@code false}.
+     */
+    public boolean isIgnoreWhenCancelled() {
+        return ignoreWhenCancelled;
+    }
+
+    /**
+     * Returns a human readable representation of this handler, which consists
+     * of the declaring class and the name of the method.
+     *
+     * @return The string representation.
+     * @since 3.8.17
+     */
+    @Override
+    public String toString() {
+        return declaringClass.getName() + "#" + name;
+    }
+
+}
@@ -0,0 +1,139 @@
+package de.craftsblock.craftscore.event.listener;
+
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.EventPriority;
+import de.craftsblock.craftscore.event.metrics.EventMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A {@link Listener} implementation that measures the invocations of another listener
+ * and reports them to an {@link EventMetrics.ListenerRecorder}.
+ * <p>
+ * Instrumented listeners only exist in dispatch plans which have been baked while
+ * metrics were enabled on the {@link de.craftsblock.craftscore.event.ListenerRegistry
+ * ListenerRegistry}. They are never registered themselves, so plans baked without
+ * metrics do not contain any instrumentation.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventMetrics
+ * @since 3.8.17
+ */
+public final class InstrumentedListener implements Listener {
+
+    private final Listener delegate;
+    private final EventMetrics.ListenerRecorder recorder;
+
+    /**
+     * Creates a new instrumented listener.
+     *
+     * @param delegate The listener whose invocations should be measured.
+     * @param recorder The recorder to report the invocations to.
+     */
+    public InstrumentedListener(@NotNull Listener delegate, @NotNull EventMetrics.ListenerRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@inheritDoc}
+     */
+    @Override
+    public void call(Event event) {
+        long start = System.nanoTime();
+        try {
+            delegate.call(event);
+        } catch (Throwable e) {
+            recorder.record(System.nanoTime() - start, true);
+            throw e;
+        }
+
+        recorder.record(System.nanoTime() - start, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A batch is recorded as a single invocation of the listener.
+     *
+     * @param events {@inheritDoc}
+     * @since 3.8.17
+     */
+    @Override
+    public void callAll(List<? extends Event> events) {
+        long start = System.nanoTime();
+        try {
+            delegate.callAll(events);
+        } catch (Throwable e) {
+            recorder.record(System.nanoTime() - start, true);
+            throw e;
+        }
+
+        recorder.record(System.nanoTime() - start, false);
+    }
+
+    /**
+     * Returns the listener whose invocations are measured.
+     *
+     * @return The instrumented listener.
+     */
+    public @NotNull Listener getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Class<?> getEventType() {
+        return delegate.getEventType();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public @Nullable Object getRoutingKey() {
+        return delegate.getRoutingKey();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public @NotNull EventPriority getPriority() {
+        return delegate.getPriority();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isIgnoreWhenCancelled() {
+        return delegate.isIgnoreWhenCancelled();
+    }
+
+    /**
+     * Returns the string representation of the instrumented listener.
+     *
+     * @return The string representation.
+     */
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
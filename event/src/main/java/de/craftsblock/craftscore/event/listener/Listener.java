@@ -1,20 +1,20 @@
 package de.craftsblock.craftscore.event.listener;
 
-import de.craftsblock.craftscore.event.Cancellable;
 import de.craftsblock.craftscore.event.Event;
 import de.craftsblock.craftscore.event.EventPriority;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
- * Represents a single event handler node in the event dispatch chain.
+ * Represents a single event handler within a baked dispatch plan.
  * <p>
- * A {@code Listener} is both a {@link Consumer} of {@link Event} instances
- * and a link in a chained execution pipeline. Each listener can delegate
- * execution to the next listener in the chain, allowing ordered and
- * prioritized event processing.
+ * A {@code Listener} is a {@link Consumer} of {@link Event} instances. Listeners
+ * do not know about each other, the ordering and the handling of cancelled events
+ * is done by the {@link de.craftsblock.craftscore.event.ListenerRegistry ListenerRegistry}
+ * which invokes the listeners of an event type in a flat loop.
  *
  * @author Philipp Maywald
  * @author CraftsBlock
@@ -23,17 +23,16 @@ import java.util.function.Consumer;
  * @since 3.8.13
  */
 public sealed interface Listener extends Consumer<Event>
-        permits DirectListener, ReflectionListener {
+        permits DirectListener, InstrumentedListener, ReflectionListener {
 
     /**
-     * Accepts an event and forwards execution into the listener chain.
+     * Accepts an event and performs the logic of this listener.
      *
      * @param event The event being processed.
      */
     @Override
     default void accept(Event event) {
         call(event);
-        callNext(event);
     }
 
     /**
@@ -45,25 +44,19 @@ public sealed interface Listener extends Consumer<Event>
     void call(Event event);
 
     /**
-     * Passes the event to the next listener in the chain, if present.
+     * Performs the logic of this listener with a batch of events sharing the same
+     * concrete type, as dispatched by
+     * {@link de.craftsblock.craftscore.event.ListenerRegistry#callAll(java.util.Collection) ListenerRegistry#callAll}.
      * <p>
-     * If the event is {@link Cancellable} and has been cancelled, listeners
-     * marked to ignore cancelled events will be skipped.
+     * By default, the events are passed to {@link #call(Event)} one after another.
      *
-     * @param event The event to forward through the chain.
+     * @param events The events to perform on, which must not be modified.
+     * @since 3.8.17
      */
-    default void callNext(Event event) {
-        Listener next = getNext();
-        if (next == null) {
-            return;
+    default void callAll(List<? extends Event> events) {
+        for (Event event : events) {
+            call(event);
         }
-
-        if (event instanceof Cancellable cancellable && cancellable.isCancelled() && next.isIgnoreWhenCancelled()) {
-            next.callNext(event);
-            return;
-        }
-
-        next.accept(event);
     }
 
     /**
@@ -71,21 +64,16 @@ public sealed interface Listener extends Consumer<Event>
      *
      * @return The class of the event handled by this listener.
      */
-    Class<? extends Event> getEventType();
-
-    /**
-     * Returns the next listener in the execution chain.
-     *
-     * @return The next {@link Listener}, or {@code null} if none exists.
-     */
-    @Nullable Listener getNext();
+    Class<?> getEventType();
 
     /**
-     * Sets the next listener in the execution chain.
+     * Returns the routing key this listener is restricted to.
      *
-     * @param next The next listener to be executed after this one.
+     * @return The routing key, or {@code null} if the listener receives all events of its type.
+     * @see de.craftsblock.craftscore.event.Routable Routable
+     * @since 3.8.17
      */
-    void setNext(@Nullable Listener next);
+    @Nullable Object getRoutingKey();
 
     /**
      * Returns the execution priority of this listener.
@@ -6,17 +6,18 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 
 /**
  * A {@link Listener} implementation that invokes event handler methods via reflection.
  * <p>
- * This listener wraps a reflective method invocation using {@link MethodHandle} for
- * improved performance compared to traditional reflection. It supports both instance
- * and static methods and binds instance methods to their owning listener object.
+ * This listener wraps a reflective method invocation using an {@link EventInvoker}
+ * created by {@link EventInvokers}. Whenever the access rules allow it, the invoker
+ * calls the handler method directly, otherwise it falls back to a bound {@link MethodHandle}.
+ * Handler methods described by a generated {@link HandlerIndex} use the generated invoker
+ * instead, so that neither creating nor calling the listener involves reflection.
+ * It supports both instance and static methods and binds instance methods to their
+ * owning listener object.
  * <p>
  * It is primarily used for annotation-driven event handlers (e.g. methods annotated
  * with {@link de.craftsblock.craftscore.event.EventHandler @EventHandler}).
@@ -28,15 +29,9 @@ import java.lang.reflect.Modifier;
  */
 public final class ReflectionListener implements Listener {
 
-    private final Class<? extends Event> eventType;
-    private final Method method;
-    private final MethodHandle handle;
-
+    private final HandlerMethod handler;
+    private final EventInvoker invoker;
     private final Object owner;
-    private final EventPriority priority;
-    private final boolean ignoreWhenCancelled;
-
-    private Listener next = null;
 
     /**
      * Creates a new reflection-based listener for the given event handler method.
@@ -48,35 +43,29 @@ public final class ReflectionListener implements Listener {
      * @param ignoreWhenCancelled Whether this listener should ignore cancelled events.
      */
     public ReflectionListener(
-            Class<? extends Event> eventType,
+            Class<?> eventType,
             Method method,
             Object owner,
             EventPriority priority,
             boolean ignoreWhenCancelled
     ) {
-        this.eventType = eventType;
-        try {
-            this.method = method;
-            method.setAccessible(true);
-
-            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(
-                    method.getDeclaringClass(),
-                    MethodHandles.lookup()
-            );
-
-            MethodHandle handle = lookup.unreflect(method);
-            if (!Modifier.isStatic(method.getModifiers())) {
-                handle = handle.bindTo(owner);
-            }
+        this(createHandler(eventType, method, priority, ignoreWhenCancelled), owner);
+    }
 
-            MethodType targetType = MethodType.methodType(void.class, Event.class);
-            this.handle = handle.asType(targetType);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Failed to create MethodHandle for " + method, e);
-        }
+    /**
+     * Creates a new reflection-based listener for the given, already described handler method.
+     * <p>
+     * This is the cheapest way of creating a listener, as the handler method only
+     * has to be bound to the owning instance.
+     *
+     * @param handler The description of the handler method.
+     * @param owner   The instance owning the method (ignored for static methods).
+     * @since 3.8.17
+     */
+    public ReflectionListener(HandlerMethod handler, Object owner) {
+        this.handler = handler;
+        this.invoker = handler.bind(owner);
         this.owner = owner;
-        this.priority = priority;
-        this.ignoreWhenCancelled = ignoreWhenCancelled;
     }
 
     /**
@@ -88,10 +77,10 @@ public final class ReflectionListener implements Listener {
     @Override
     public void call(Event event) {
         try {
-            handle.invokeExact(event);
+            invoker.invoke(event);
         } catch (Throwable e) {
             throw new RuntimeException(
-                    "Could not invoke listener callback %s".formatted(handle),
+                    "Could not invoke listener callback %s".formatted(handler),
                     e
             );
         }
@@ -103,28 +92,29 @@ public final class ReflectionListener implements Listener {
      * @return {@inheritDoc}
      */
     @Override
-    public Class<? extends Event> getEventType() {
-        return eventType;
+    public Class<?> getEventType() {
+        return handler.getEventType();
     }
 
     /**
      * {@inheritDoc}
      *
      * @return {@inheritDoc}
+     * @since 3.8.17
      */
     @Override
-    public @Nullable Listener getNext() {
-        return next;
+    public @Nullable Object getRoutingKey() {
+        return handler.getRoutingKey();
     }
 
     /**
-     * {@inheritDoc}
+     * Returns the description of the handler method associated with this listener.
      *
-     * @param next {@inheritDoc}
+     * @return The {@link HandlerMethod} instance.
+     * @since 3.8.17
      */
-    @Override
-    public void setNext(@Nullable Listener next) {
-        this.next = next;
+    public @NotNull HandlerMethod getHandler() {
+        return handler;
     }
 
     /**
@@ -133,7 +123,7 @@ public final class ReflectionListener implements Listener {
      * @return The handler {@link Method} instance.
      */
     public @NotNull Method getMethod() {
-        return method;
+        return handler.getMethod();
     }
 
     /**
@@ -155,7 +145,7 @@ public final class ReflectionListener implements Listener {
      */
     @Override
     public @NotNull EventPriority getPriority() {
-        return priority;
+        return handler.getPriority();
     }
 
     /**
@@ -165,7 +155,37 @@ public final class ReflectionListener implements Listener {
      */
     @Override
     public boolean isIgnoreWhenCancelled() {
-        return ignoreWhenCancelled;
+        return handler.isIgnoreWhenCancelled();
+    }
+
+    /**
+     * Returns a human readable representation of this listener, which consists
+     * of the declaring class and the name of the handler method.
+     *
+     * @return The string representation.
+     * @since 3.8.17
+     */
+    @Override
+    public String toString() {
+        return handler.toString();
+    }
+
+    /**
+     * Creates the description of the given handler method.
+     *
+     * @param eventType           The class of the event handled by the method.
+     * @param method              The reflective method to invoke when the event is fired.
+     * @param priority            The execution priority of the handler.
+     * @param ignoreWhenCancelled Whether the handler should ignore cancelled events.
+     * @return The created {@link HandlerMethod}.
+     */
+    private static HandlerMethod createHandler(Class<?> eventType, Method method,
+                                               EventPriority priority, boolean ignoreWhenCancelled) {
+        try {
+            return new HandlerMethod(eventType, method, priority, ignoreWhenCancelled);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to create invoker for " + method, e);
+        }
     }
 
 }
@@ -0,0 +1,77 @@
+package de.craftsblock.craftscore.event.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of a single event type collected by the {@link StandardEventMetrics}.
+ * <p>
+ * The getters of this class are exposed as composite data by the {@link JmxMetricsExporter}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see StandardEventMetrics
+ * @since 3.8.17
+ */
+public final class DispatchStatistics implements EventMetrics.DispatchRecorder {
+
+    private final String eventType;
+    private final LongAdder dispatches = new LongAdder();
+    private volatile long since = System.nanoTime();
+
+    /**
+     * Creates new, empty statistics.
+     *
+     * @param eventType The name of the event type.
+     */
+    DispatchStatistics(@NotNull String eventType) {
+        this.eventType = eventType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void record() {
+        dispatches.increment();
+    }
+
+    /**
+     * Returns the name of the event type.
+     *
+     * @return The name of the event type.
+     */
+    public @NotNull String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the number of dispatched events.
+     *
+     * @return The number of dispatches.
+     */
+    public long getDispatches() {
+        return dispatches.sum();
+    }
+
+    /**
+     * Returns the average number of dispatched events per second since the
+     * statistics have been created or reset.
+     *
+     * @return The dispatch rate per second.
+     */
+    public double getDispatchesPerSecond() {
+        long elapsed = System.nanoTime() - since;
+        return elapsed <= 0 ? 0 : getDispatches() * 1_000_000_000d / elapsed;
+    }
+
+    /**
+     * Clears the collected statistics.
+     */
+    void reset() {
+        dispatches.reset();
+        since = System.nanoTime();
+    }
+
+}
@@ -0,0 +1,77 @@
+package de.craftsblock.craftscore.event.metrics;
+
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.listener.Listener;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Service provider interface for collecting metrics of a
+ * {@link de.craftsblock.craftscore.event.ListenerRegistry ListenerRegistry}.
+ * <p>
+ * Metrics are opt-in and enabled through
+ * {@link de.craftsblock.craftscore.event.ListenerRegistry#setMetrics(EventMetrics) ListenerRegistry#setMetrics}.
+ * While enabled, the registry requests a recorder for every listener and event type
+ * whenever it bakes a dispatch plan, and the plan reports to these recorders while
+ * dispatching. Recorders should therefore be created once per listener or event type
+ * and be cheap to call from many threads at the same time.
+ * <p>
+ * {@link StandardEventMetrics} is the built-in implementation, which can be exported
+ * through JMX using the {@link JmxMetricsExporter}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see StandardEventMetrics
+ * @since 3.8.17
+ */
+public interface EventMetrics {
+
+    /**
+     * Returns the recorder for the invocations of the given listener.
+     *
+     * @param listener The listener whose invocations should be recorded.
+     * @return The recorder of the listener.
+     */
+    @NotNull ListenerRecorder listenerRecorder(@NotNull Listener listener);
+
+    /**
+     * Returns the recorder for the dispatches of the given concrete event type.
+     *
+     * @param eventType The concrete event class whose dispatches should be recorded.
+     * @return The recorder of the event type.
+     */
+    @NotNull DispatchRecorder dispatchRecorder(@NotNull Class<? extends Event> eventType);
+
+    /**
+     * Records the invocations of a single listener.
+     *
+     * @since 3.8.17
+     */
+    @FunctionalInterface
+    interface ListenerRecorder {
+
+        /**
+         * Records a single invocation of the listener.
+         *
+         * @param durationNanos The time the invocation took in nanoseconds.
+         * @param failed        Whether the invocation has thrown an exception.
+         */
+        void record(long durationNanos, boolean failed);
+
+    }
+
+    /**
+     * Records the dispatches of a single event type.
+     *
+     * @since 3.8.17
+     */
+    @FunctionalInterface
+    interface DispatchRecorder {
+
+        /**
+         * Records a single dispatch of the event type.
+         */
+        void record();
+
+    }
+
+}
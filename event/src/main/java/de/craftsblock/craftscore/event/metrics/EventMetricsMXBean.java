@@ -0,0 +1,35 @@
+package de.craftsblock.craftscore.event.metrics;
+
+import java.util.List;
+
+/**
+ * The management interface through which the {@link JmxMetricsExporter}
+ * exposes {@link StandardEventMetrics} over JMX.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see JmxMetricsExporter
+ * @since 3.8.17
+ */
+public interface EventMetricsMXBean {
+
+    /**
+     * Returns the statistics of all listeners.
+     *
+     * @return The statistics of the listeners.
+     */
+    List<ListenerStatistics> getListeners();
+
+    /**
+     * Returns the statistics of all concrete event types.
+     *
+     * @return The statistics of the event types.
+     */
+    List<DispatchStatistics> getEventTypes();
+
+    /**
+     * Clears all collected statistics.
+     */
+    void reset();
+
+}
@@ -0,0 +1,110 @@
+package de.craftsblock.craftscore.event.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Exports {@link StandardEventMetrics} as an MXBean on the platform {@link MBeanServer}.
+ * <p>
+ * The bean is registered under the object name
+ * {@code de.craftsblock.craftscore.event:type=EventMetrics,name=<name>} and can be
+ * inspected with any JMX client, like JConsole or VisualVM. Closing the exporter
+ * unregisters the bean again.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see StandardEventMetrics
+ * @since 3.8.17
+ */
+public final class JmxMetricsExporter implements EventMetricsMXBean, AutoCloseable {
+
+    private final StandardEventMetrics metrics;
+    private final ObjectName objectName;
+
+    /**
+     * Creates a new exporter.
+     *
+     * @param metrics    The metrics to export.
+     * @param objectName The object name of the bean.
+     */
+    private JmxMetricsExporter(@NotNull StandardEventMetrics metrics, @NotNull ObjectName objectName) {
+        this.metrics = metrics;
+        this.objectName = objectName;
+    }
+
+    /**
+     * Registers the given metrics on the platform {@link MBeanServer}.
+     *
+     * @param metrics The metrics to export.
+     * @param name    The name distinguishing the metrics from the ones of other registries.
+     * @return The exporter, which unregisters the bean once closed.
+     * @throws IllegalStateException If the bean could not be registered.
+     */
+    public static @NotNull JmxMetricsExporter register(@NotNull StandardEventMetrics metrics, @NotNull String name) {
+        try {
+            ObjectName objectName = new ObjectName("de.craftsblock.craftscore.event:type=EventMetrics,name=" + ObjectName.quote(name));
+
+            JmxMetricsExporter exporter = new JmxMetricsExporter(metrics, objectName);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(exporter, objectName);
+            return exporter;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the event metrics %s!".formatted(name), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public List<ListenerStatistics> getListeners() {
+        return metrics.getListenerStatistics();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public List<DispatchStatistics> getEventTypes() {
+        return metrics.getDispatchStatistics();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+
+    /**
+     * Returns the object name under which the bean is registered.
+     *
+     * @return The object name.
+     */
+    public @NotNull ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Unregisters the bean from the platform {@link MBeanServer}.
+     * Closing an already closed exporter has no effect.
+     */
+    @Override
+    public void close() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (InstanceNotFoundException ignored) {
+            // Already unregistered
+        } catch (MBeanRegistrationException e) {
+            throw new IllegalStateException("Could not unregister the event metrics %s!".formatted(objectName), e);
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package de.craftsblock.craftscore.event.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of a single listener collected by the {@link StandardEventMetrics}.
+ * <p>
+ * The getters of this class are exposed as composite data by the {@link JmxMetricsExporter}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see StandardEventMetrics
+ * @since 3.8.17
+ */
+public final class ListenerStatistics implements EventMetrics.ListenerRecorder {
+
+    private final String name;
+    private final String eventType;
+    private final String priority;
+
+    private final LongAdder failures = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * Creates new, empty statistics.
+     *
+     * @param name      The human readable name of the listener.
+     * @param eventType The name of the event type the listener is registered for.
+     * @param priority  The name of the priority of the listener.
+     */
+    ListenerStatistics(@NotNull String name, @NotNull String eventType, @NotNull String priority) {
+        this.name = name;
+        this.eventType = eventType;
+        this.priority = priority;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param durationNanos {@inheritDoc}
+     * @param failed        {@inheritDoc}
+     */
+    @Override
+    public void record(long durationNanos, boolean failed) {
+        latencies.record(durationNanos);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Returns the human readable name of the listener.
+     *
+     * @return The name of the listener.
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name of the event type the listener is registered for.
+     *
+     * @return The name of the event type.
+     */
+    public @NotNull String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the name of the priority of the listener.
+     *
+     * @return The name of the priority.
+     */
+    public @NotNull String getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns the number of invocations of the listener.
+     *
+     * @return The number of invocations.
+     */
+    public long getInvocations() {
+        return latencies.getCount();
+    }
+
+    /**
+     * Returns the number of invocations which have thrown an exception.
+     *
+     * @return The number of failed invocations.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the total time spent in the listener.
+     *
+     * @return The total time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return latencies.getTotal();
+    }
+
+    /**
+     * Returns the mean time of a single invocation.
+     *
+     * @return The mean time in nanoseconds.
+     */
+    public double getMeanNanos() {
+        return latencies.getMean();
+    }
+
+    /**
+     * Returns the median time of a single invocation.
+     *
+     * @return The median time in nanoseconds.
+     */
+    public long getP50Nanos() {
+        return latencies.getValueAtPercentile(50);
+    }
+
+    /**
+     * Returns the 99th percentile of the time of a single invocation.
+     *
+     * @return The 99th percentile in nanoseconds.
+     */
+    public long getP99Nanos() {
+        return latencies.getValueAtPercentile(99);
+    }
+
+    /**
+     * Returns the 99.9th percentile of the time of a single invocation.
+     *
+     * @return The 99.9th percentile in nanoseconds.
+     */
+    public long getP999Nanos() {
+        return latencies.getValueAtPercentile(99.9);
+    }
+
+    /**
+     * Returns the longest time of a single invocation.
+     *
+     * @return The longest time in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return latencies.getMax();
+    }
+
+    /**
+     * Returns the histogram of the invocation times, which allows querying arbitrary percentiles.
+     *
+     * @return The latency histogram.
+     */
+    public @NotNull LatencyHistogram latencies() {
+        return latencies;
+    }
+
+    /**
+     * Clears the collected statistics.
+     */
+    void reset() {
+        failures.reset();
+        latencies.reset();
+    }
+
+}
@@ -0,0 +1,98 @@
+package de.craftsblock.craftscore.event.metrics;
+
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.listener.Listener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The built-in {@link EventMetrics} implementation, which keeps the statistics in memory.
+ * <p>
+ * For every listener the number of invocations and failures as well as a
+ * {@link LatencyHistogram} of the invocation times are collected. For every
+ * concrete event type the number of dispatches is counted. Statistics are held
+ * weakly, so that they are discarded together with unregistered listeners and
+ * unloaded event classes.
+ *
+ * <pre>{@code
+ * StandardEventMetrics metrics = new StandardEventMetrics();
+ * registry.setMetrics(metrics);
+ * JmxMetricsExporter.register(metrics, "main");
+ * }</pre>
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see JmxMetricsExporter
+ * @since 3.8.17
+ */
+public class StandardEventMetrics implements EventMetrics {
+
+    private final Map<Listener, ListenerStatistics> listeners = new WeakHashMap<>();
+    private final Map<Class<?>, DispatchStatistics> eventTypes = new WeakHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public synchronized @NotNull ListenerStatistics listenerRecorder(@NotNull Listener listener) {
+        return listeners.computeIfAbsent(listener, l -> new ListenerStatistics(
+                describe(l), l.getEventType().getName(), l.getPriority().name()
+        ));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param eventType {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public synchronized @NotNull DispatchStatistics dispatchRecorder(@NotNull Class<? extends Event> eventType) {
+        return eventTypes.computeIfAbsent(eventType, type -> new DispatchStatistics(type.getName()));
+    }
+
+    /**
+     * Returns the statistics of all listeners which have been part of a dispatch plan.
+     *
+     * @return The statistics of the listeners.
+     */
+    public synchronized @NotNull @Unmodifiable List<ListenerStatistics> getListenerStatistics() {
+        return List.copyOf(listeners.values());
+    }
+
+    /**
+     * Returns the statistics of all concrete event types which have been part of a dispatch plan.
+     *
+     * @return The statistics of the event types.
+     */
+    public synchronized @NotNull @Unmodifiable List<DispatchStatistics> getDispatchStatistics() {
+        return List.copyOf(eventTypes.values());
+    }
+
+    /**
+     * Clears all collected statistics. Listeners and event types remain known.
+     */
+    public synchronized void reset() {
+        listeners.values().forEach(ListenerStatistics::reset);
+        eventTypes.values().forEach(DispatchStatistics::reset);
+    }
+
+    /**
+     * Creates a human readable name for the given listener.
+     *
+     * @param listener The listener to describe.
+     * @return The name of the listener.
+     */
+    protected @NotNull String describe(@NotNull Listener listener) {
+        Object routingKey = listener.getRoutingKey();
+        return routingKey != null ? "%s[%s]".formatted(listener, routingKey) : listener.toString();
+    }
+
+}
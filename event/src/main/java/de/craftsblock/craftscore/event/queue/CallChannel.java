@@ -0,0 +1,476 @@
+package de.craftsblock.craftscore.event.queue;
+
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A single channel of a {@link CallQueue}, holding the queued calls in FIFO order.
+ * <p>
+ * A channel is unbounded by default. Once a capacity has been configured, the
+ * {@link OverflowPolicy} of the channel decides what happens to calls which are
+ * queued while the channel is full, so that a slow consumer applies backpressure
+ * to its producers instead of letting the queue grow without limits.
+ * <p>
+ * Unbounded channels store their calls in a lock-free {@link MpscQueue}, so producers
+ * never contend on a lock. Bounded channels need to inspect and modify the queued calls
+ * when applying their overflow policy and therefore keep them in a locked buffer. In both
+ * cases only one thread at a time drains the channel, which keeps the calls in FIFO order.
+ * <p>
+ * Calls whose event type has a {@link CoalescingRule} are merged into the pending call
+ * with the same coalescing key, as long as that call has not been drained yet. Only the
+ * first call of a key occupies a place in the channel, and the merged event is resolved
+ * once that call is drained.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see CallQueue
+ * @since 3.8.17
+ */
+final class CallChannel {
+
+    private final short id;
+    private final ReentrantLock consumer = new ReentrantLock();
+    private final MpscQueue<QueuedCall> unbounded = new MpscQueue<>();
+    private final Map<CoalescingRule.Key, Coalesced> coalescing = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<QueuedCall> calls = new ArrayDeque<>();
+    private volatile int bounded = 0;
+
+    private volatile int capacity = Integer.MAX_VALUE;
+    private volatile OverflowPolicy policy = OverflowPolicy.BLOCK;
+
+    /**
+     * Creates a new, unbounded channel.
+     *
+     * @param id The id of the channel.
+     */
+    CallChannel(short id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the id of this channel.
+     *
+     * @return The channel ID.
+     */
+    short id() {
+        return id;
+    }
+
+    /**
+     * Changes the capacity and the overflow policy of this channel. Calls which
+     * are already queued are kept, even if they exceed the new capacity.
+     * <p>
+     * If the channel becomes bounded, calls queued in the lock-free buffer are moved
+     * to the locked buffer, which is why this waits for a running drain to finish.
+     *
+     * @param capacity The maximum number of queued calls.
+     * @param policy   The policy applied once the channel is full.
+     */
+    void configure(int capacity, @NotNull OverflowPolicy policy) {
+        consumer.lock();
+        lock.lock();
+        try {
+            this.capacity = capacity;
+            this.policy = policy;
+
+            if (capacity != Integer.MAX_VALUE) {
+                transfer();
+            }
+
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+            consumer.unlock();
+        }
+    }
+
+    /**
+     * Moves all calls of the lock-free buffer to the end of the locked buffer.
+     * Must only be called while holding both the consumer lock and the lock.
+     */
+    private void transfer() {
+        QueuedCall call;
+        while ((call = unbounded.poll()) != null) {
+            calls.add(call);
+        }
+
+        bounded = calls.size();
+    }
+
+    /**
+     * Returns the capacity of this channel.
+     *
+     * @return The maximum number of queued calls.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the overflow policy of this channel.
+     *
+     * @return The policy applied once the channel is full.
+     */
+    @NotNull OverflowPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Merges a call into the pending call with the same coalescing key, or adds it to the
+     * end of this channel if there is none. The future of a merged call completes together
+     * with the future of the pending call.
+     *
+     * @param call The call to add.
+     * @param rule The coalescing rule of the event type.
+     */
+    void offer(@NotNull QueuedCall call, @NotNull CoalescingRule rule) {
+        Event event = call.event();
+
+        CoalescingRule.Key key;
+        try {
+            key = new CoalescingRule.Key(event.getClass(), rule.key().apply(event));
+        } catch (RuntimeException e) {
+            call.future().completeExceptionally(e);
+            CallQueue.release(event);
+            return;
+        }
+
+        while (true) {
+            Coalesced pending = coalescing.get(key);
+            if (pending == null) {
+                Coalesced created = new Coalesced(key, event, call.future());
+                if (coalescing.putIfAbsent(key, created) == null) {
+                    offer(call.withCoalesced(created));
+                    return;
+                }
+
+                continue;
+            }
+
+            try {
+                if (!pending.merge(rule, event)) {
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                call.future().completeExceptionally(e);
+                CallQueue.release(event);
+                return;
+            }
+
+            merge(call.future(), pending.future);
+            return;
+        }
+    }
+
+    /**
+     * Adds a call to the end of this channel, applying the overflow policy if the channel is full.
+     * Futures of calls which have been dropped or rejected are completed after the channel
+     * has been released again.
+     *
+     * @param call The call to add.
+     */
+    void offer(@NotNull QueuedCall call) {
+        if (capacity == Integer.MAX_VALUE) {
+            unbounded.offer(call);
+
+            // The channel may have become bounded while the call was added, after the lock-free
+            // buffer has been moved to the locked one. The call is moved as well, so that it is
+            // not overtaken by the calls added to the locked buffer in the meantime.
+            if (capacity != Integer.MAX_VALUE) {
+                consumer.lock();
+                lock.lock();
+                try {
+                    transfer();
+                } finally {
+                    lock.unlock();
+                    consumer.unlock();
+                }
+            }
+
+            return;
+        }
+
+        QueuedCall dropped = null;
+        Throwable rejection = null;
+        Event replaced = null;
+
+        lock.lock();
+        try {
+            if (calls.size() >= capacity) {
+                switch (policy) {
+                    case BLOCK -> {
+                        // A listener running in the drain of this channel would wait for itself,
+                        // so the calls it queues exceed the capacity instead
+                        if (consumer.isHeldByCurrentThread()) {
+                            break;
+                        }
+
+                        try {
+                            while (calls.size() >= capacity) {
+                                notFull.await();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped = call;
+                            rejection = e;
+                        }
+                    }
+                    case DROP_OLDEST -> dropped = calls.poll();
+                    case DROP_NEWEST -> dropped = call;
+                    case FAIL -> {
+                        dropped = call;
+                        rejection = new RejectedExecutionException("The channel is full!");
+                    }
+                    case COALESCE -> {
+                        QueuedCall last = removeLast(call.event().getClass());
+                        if (last != null) {
+                            replaced = resolve(last);
+                            merge(last.future(), call.future());
+                        } else {
+                            dropped = call;
+                            rejection = new RejectedExecutionException("The channel is full and has no event to coalesce with!");
+                        }
+                    }
+                }
+            }
+
+            if (dropped != call) {
+                calls.add(call);
+            }
+
+            bounded = calls.size();
+        } finally {
+            lock.unlock();
+        }
+
+        if (replaced != null) {
+            CallQueue.release(replaced);
+        }
+
+        if (dropped == null) {
+            return;
+        }
+
+        Event event = resolve(dropped);
+        if (rejection != null) {
+            dropped.future().completeExceptionally(rejection);
+        } else {
+            dropped.future().cancel(false);
+        }
+
+        CallQueue.release(event);
+    }
+
+    /**
+     * Returns the event a call stands for, which is the merged event if the call is coalesced.
+     * A coalesced call is settled, so that later calls with the same key start a new one.
+     *
+     * @param call The call.
+     * @return The event of the call.
+     */
+    private @NotNull Event resolve(@NotNull QueuedCall call) {
+        Coalesced coalesced = call.coalesced();
+        return coalesced != null ? coalesced.settle(coalescing) : call.event();
+    }
+
+    /**
+     * Removes all calls of this channel and passes them to the given action in FIFO order.
+     * Concurrent drains of the same channel are serialized, while the action of a drain
+     * may drain the channel again.
+     *
+     * @param action The action which processes the removed calls.
+     */
+    void drain(@NotNull Consumer<QueuedCall> action) {
+        drain(Integer.MAX_VALUE, false, 0, action);
+    }
+
+    /**
+     * Removes up to the given number of calls of this channel and passes them to the given
+     * action in FIFO order. If the drain is timed, it stops once the deadline has passed,
+     * but always processes at least one call if the channel is not empty.
+     *
+     * @param maxCalls The maximum number of calls to remove.
+     * @param timed    Whether the drain should stop at the deadline.
+     * @param deadline The {@link System#nanoTime()} at which a timed drain stops.
+     * @param action   The action which processes the removed calls.
+     * @return The number of removed calls.
+     */
+    int drain(int maxCalls, boolean timed, long deadline, @NotNull Consumer<QueuedCall> action) {
+        consumer.lock();
+        try {
+            int drained = 0;
+
+            QueuedCall call;
+            while (drained < maxCalls && (call = poll()) != null) {
+                action.accept(call.coalesced() != null ? call.withEvent(resolve(call)) : call);
+                drained++;
+
+                if (timed && System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+            }
+
+            return drained;
+        } finally {
+            consumer.unlock();
+        }
+    }
+
+    /**
+     * Removes the first call of this channel. Must only be called while holding the consumer lock.
+     * <p>
+     * Calls of the locked buffer are always older than the calls of the lock-free buffer,
+     * as the lock-free buffer is emptied into the locked one once the channel becomes bounded.
+     *
+     * @return The removed call, or {@code null} if the channel is empty.
+     */
+    private @Nullable QueuedCall poll() {
+        if (bounded != 0) {
+            lock.lock();
+            try {
+                QueuedCall call = calls.poll();
+                bounded = calls.size();
+
+                if (call != null) {
+                    notFull.signal();
+                    return call;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return unbounded.poll();
+    }
+
+    /**
+     * Returns the number of queued calls.
+     *
+     * @return The queue depth of this channel.
+     */
+    int size() {
+        return bounded + unbounded.size();
+    }
+
+    /**
+     * Removes the most recently queued call whose event is of exactly the given class.
+     * Must only be called while holding the lock.
+     *
+     * @param type The class of the event.
+     * @return The removed call, or {@code null} if there is none.
+     */
+    private @Nullable QueuedCall removeLast(@NotNull Class<? extends Event> type) {
+        Iterator<QueuedCall> iterator = calls.descendingIterator();
+        while (iterator.hasNext()) {
+            QueuedCall queued = iterator.next();
+            if (queued.event().getClass() == type) {
+                iterator.remove();
+                return queued;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Completes the future of a replaced call together with the future of the replacing call.
+     *
+     * @param replaced  The future of the call which has been replaced.
+     * @param replacing The future of the call which replaced it.
+     */
+    private static void merge(@NotNull CompletableFuture<Event> replaced, @NotNull CompletableFuture<Event> replacing) {
+        replacing.whenComplete((event, throwable) -> {
+            if (throwable != null) {
+                replaced.completeExceptionally(throwable);
+            } else {
+                replaced.complete(event);
+            }
+        });
+    }
+
+    /**
+     * A pending event which later calls with the same coalescing key are merged into.
+     */
+    static final class Coalesced {
+
+        private final CoalescingRule.Key key;
+        private final CompletableFuture<Event> future;
+        private Event event;
+        private boolean settled = false;
+
+        /**
+         * Creates a new pending coalesced event.
+         *
+         * @param key    The coalescing key of the event.
+         * @param event  The first event of the key.
+         * @param future The future of the call which queued the first event.
+         */
+        private Coalesced(@NotNull CoalescingRule.Key key, @NotNull Event event, @NotNull CompletableFuture<Event> future) {
+            this.key = key;
+            this.event = event;
+            this.future = future;
+        }
+
+        /**
+         * Merges a newer event into this pending event. Pooled events which are not part
+         * of the result anymore are released to their pool.
+         *
+         * @param rule  The coalescing rule of the event type.
+         * @param newer The event to merge.
+         * @return {@code true} if the event has been merged, or {@code false} if this
+         * pending event has already been settled.
+         * @throws NullPointerException If the merge function returned {@code null}.
+         */
+        private synchronized boolean merge(@NotNull CoalescingRule rule, @NotNull Event newer) {
+            if (settled) {
+                return false;
+            }
+
+            Event merged = Objects.requireNonNull(rule.merge().apply(event, newer), "The merge function returned null!");
+            if (merged != event) {
+                CallQueue.release(event);
+            }
+
+            if (merged != newer) {
+                CallQueue.release(newer);
+            }
+
+            event = merged;
+            return true;
+        }
+
+        /**
+         * Settles this pending event, so that later calls with the same key start a new one.
+         *
+         * @param coalescing The pending events of the channel.
+         * @return The merged event.
+         */
+        private @NotNull Event settle(@NotNull Map<CoalescingRule.Key, Coalesced> coalescing) {
+            Event merged;
+            synchronized (this) {
+                settled = true;
+                merged = event;
+            }
+
+            coalescing.remove(key, this);
+            return merged;
+        }
+
+    }
+
+}
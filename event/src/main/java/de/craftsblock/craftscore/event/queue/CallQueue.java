@@ -2,15 +2,21 @@ package de.craftsblock.craftscore.event.queue;
 
 import de.craftsblock.craftscore.event.Event;
 import de.craftsblock.craftscore.event.ListenerRegistry;
+import de.craftsblock.craftscore.event.ReusableEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * A queue-based event dispatch system that allows events to be processed
@@ -20,6 +26,38 @@ import java.util.concurrent.Executor;
  * {@link ListenerRegistry}, enabling controlled execution of events either immediately
  * or at a later dispatch stage. Events can be grouped into separate channels to
  * allow isolated processing flows.
+ * <p>
+ * Channels are unbounded by default. A channel can be {@link #configure(short, int, OverflowPolicy)
+ * bounded} to a maximum number of queued events, in which case its {@link OverflowPolicy}
+ * decides what happens to events queued while the channel is full. This way a consumer
+ * which can not keep up applies backpressure to its producers instead of exhausting the heap.
+ * <p>
+ * Events which are superseded by later ones can be {@link #coalesce(Class, Function, BinaryOperator)
+ * coalesced}. As long as an event is queued, later events of the same type and coalescing key
+ * are merged into it instead of being queued themselves, so that only one event per key is
+ * dispatched and the futures of all merged events complete with it.
+ * <p>
+ * To spread a backlog over several ticks, a dispatch can be limited to a
+ * {@link #dispatch(short, int) number of events} or a {@link #dispatch(short, Duration)
+ * time budget}. {@link #dispatchAll(int) dispatchAll} drains the channels round-robin,
+ * one event per channel and turn, and resumes with the next channel on the following call,
+ * so that a single busy channel can not starve the others. Independent channels can also be
+ * {@link #dispatchAll(Executor) drained in parallel}, while the events of each channel are
+ * still dispatched one after another in the order they have been queued.
+ * <p>
+ * Events can also be scheduled {@link #queueAfter(short, Duration, Event) after a delay} or
+ * {@link #queueAt(short, Instant, Event) at a point in time}. Scheduled events are kept in a
+ * hierarchical timing wheel with a resolution of one millisecond, which is advanced whenever
+ * the queue is dispatched. Once due, they are queued in their channel like any other event.
+ * <p>
+ * An {@link EventJournal} can be {@link #setJournal(EventJournal) attached} to the queue,
+ * which records every queued event before it is dispatched, so that events which have not
+ * been processed before a crash can be recovered and past events can be replayed.
+ * <p>
+ * Pooled {@link ReusableEvent reusable events} are owned by the queue once they have been
+ * queued or scheduled, and are released to their pool as soon as they have been dispatched.
+ * Their futures therefore complete with {@code null} rather than the event, so that no caller
+ * can get hold of an instance which has already been recycled.
  *
  * @author Philipp Maywald
  * @author CraftsBlock
@@ -29,7 +67,15 @@ import java.util.concurrent.Executor;
 public class CallQueue {
 
     private final ListenerRegistry listenerRegistry;
-    private final Map<Short, Queue<QueuedCall>> channels = new ConcurrentHashMap<>();
+    private final ChannelTable channels = new ChannelTable();
+    private final Map<Class<? extends Event>, CoalescingRule> coalescing = new ConcurrentHashMap<>();
+    private final Consumer<QueuedCall> dispatcher = this::dispatch;
+
+    private final Consumer<ScheduledCall> scheduler = this::queueDue;
+
+    private volatile int cursor = 0;
+    private volatile TimingWheel timers;
+    private volatile EventJournal journal;
 
     /**
      * Creates a new {@link CallQueue} bound to the given {@link ListenerRegistry}.
@@ -40,6 +86,116 @@ public class CallQueue {
         this.listenerRegistry = listenerRegistry;
     }
 
+    /**
+     * Limits the number of events which can be queued in the given channel.
+     * <p>
+     * Events which are already queued are kept, even if they exceed the new capacity.
+     *
+     * @param channel  The channel ID to configure.
+     * @param capacity The maximum number of queued events.
+     * @param policy   The policy applied to events queued while the channel is full.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     * @since 3.8.17
+     */
+    public void configure(short channel, int capacity, @NotNull OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive, but was %s!".formatted(capacity));
+        }
+
+        channel(channel).configure(capacity, policy);
+    }
+
+    /**
+     * Removes the capacity limit of the given channel.
+     *
+     * @param channel The channel ID to configure.
+     * @since 3.8.17
+     */
+    public void unbound(short channel) {
+        channel(channel).configure(Integer.MAX_VALUE, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Returns the maximum number of events which can be queued in the given channel.
+     *
+     * @param channel The channel ID.
+     * @return The capacity, or {@link Integer#MAX_VALUE} if the channel is unbounded.
+     * @since 3.8.17
+     */
+    public int getCapacity(short channel) {
+        CallChannel queue = channels.get(channel);
+        return queue != null ? queue.capacity() : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the number of events currently queued in the given channel.
+     *
+     * @param channel The channel ID.
+     * @return The queue depth of the channel.
+     * @since 3.8.17
+     */
+    public int depth(short channel) {
+        CallChannel queue = channels.get(channel);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Returns the number of events currently queued across all channels.
+     *
+     * @return The total queue depth.
+     * @since 3.8.17
+     */
+    public long depth() {
+        long[] depth = new long[1];
+        channels.forEach(queue -> depth[0] += queue.size());
+        return depth[0];
+    }
+
+    /**
+     * Coalesces queued events of the given type, so that only the latest event per
+     * coalescing key is dispatched.
+     *
+     * @param type The concrete class of the events.
+     * @param key  The function extracting the coalescing key of an event.
+     * @param <T>  The type of the events.
+     * @see #coalesce(Class, Function, BinaryOperator)
+     * @since 3.8.17
+     */
+    public <T extends Event> void coalesce(@NotNull Class<T> type, @NotNull Function<? super T, ?> key) {
+        this.coalesce(type, key, (older, newer) -> newer);
+    }
+
+    /**
+     * Coalesces queued events of the given type using a merge function.
+     * <p>
+     * When an event of exactly the given class is queued while another event with the same
+     * coalescing key is still waiting in the same channel, both are merged into a single event
+     * which keeps the position of the waiting one. The futures of all merged events complete
+     * with the merged event once it has been dispatched. If the merge function throws, only
+     * the future of the newer event completes exceptionally.
+     *
+     * @param type  The concrete class of the events.
+     * @param key   The function extracting the coalescing key of an event. May return {@code null}.
+     * @param merge The function merging the waiting event with a newer one. Must not return {@code null}.
+     * @param <T>   The type of the events.
+     * @since 3.8.17
+     */
+    public <T extends Event> void coalesce(@NotNull Class<T> type, @NotNull Function<? super T, ?> key,
+                                           @NotNull BinaryOperator<T> merge) {
+        coalescing.put(type, CoalescingRule.of(key, merge));
+    }
+
+    /**
+     * Stops coalescing queued events of the given type. Events which have already been
+     * merged are still dispatched as a single event.
+     *
+     * @param type The concrete class of the events.
+     * @since 3.8.17
+     */
+    public void removeCoalescing(@NotNull Class<? extends Event> type) {
+        coalescing.remove(type);
+    }
+
     /**
      * Queues an event for deferred processing in the default channel (channel 0).
      *
@@ -104,8 +260,113 @@ public class CallQueue {
         return this.queue(channel, event, true, executor);
     }
 
+    /**
+     * Schedules an event to be queued in the default channel (channel 0) after the given delay.
+     *
+     * @param delay The delay after which the event is queued.
+     * @param event The event to be scheduled.
+     * @return The handle of the scheduled event.
+     * @since 3.8.17
+     */
+    public @NotNull ScheduledCall queueAfter(@NotNull Duration delay, @NotNull Event event) {
+        return this.queueAfter((short) 0, delay, event);
+    }
+
+    /**
+     * Schedules an event to be queued in a specific channel after the given delay.
+     * <p>
+     * The event is queued by the first dispatch of this queue which happens after the delay
+     * has passed, and dispatched together with the other queued events of its channel.
+     *
+     * @param channel The channel ID to queue the event in.
+     * @param delay   The delay after which the event is queued. Negative delays are treated as zero.
+     * @param event   The event to be scheduled.
+     * @return The handle of the scheduled event.
+     * @since 3.8.17
+     */
+    public @NotNull ScheduledCall queueAfter(short channel, @NotNull Duration delay, @NotNull Event event) {
+        TimingWheel wheel = timers;
+        if (wheel == null) {
+            synchronized (this) {
+                if ((wheel = timers) == null) {
+                    timers = wheel = new TimingWheel();
+                }
+            }
+        }
+
+        return wheel.schedule(channel, delay, event);
+    }
+
+    /**
+     * Schedules an event to be queued in the default channel (channel 0) at the given point in time.
+     *
+     * @param time  The point in time at which the event is queued.
+     * @param event The event to be scheduled.
+     * @return The handle of the scheduled event.
+     * @since 3.8.17
+     */
+    public @NotNull ScheduledCall queueAt(@NotNull Instant time, @NotNull Event event) {
+        return this.queueAt((short) 0, time, event);
+    }
+
+    /**
+     * Schedules an event to be queued in a specific channel at the given point in time.
+     * <p>
+     * The point in time is converted into a delay right away, so later adjustments of the
+     * system clock do not affect the scheduled event.
+     *
+     * @param channel The channel ID to queue the event in.
+     * @param time    The point in time at which the event is queued.
+     * @param event   The event to be scheduled.
+     * @return The handle of the scheduled event.
+     * @since 3.8.17
+     */
+    public @NotNull ScheduledCall queueAt(short channel, @NotNull Instant time, @NotNull Event event) {
+        return this.queueAfter(channel, Duration.between(Instant.now(), time), event);
+    }
+
+    /**
+     * Returns the number of scheduled events which are neither due nor cancelled.
+     *
+     * @return The number of scheduled events.
+     * @since 3.8.17
+     */
+    public int getScheduledCount() {
+        TimingWheel wheel = timers;
+        return wheel != null ? wheel.pending() : 0;
+    }
+
+    /**
+     * Sets the journal which records every event queued from now on before it is dispatched.
+     * An event counts as processed in the journal once its future has completed, which
+     * includes events that have been dropped or merged into other events.
+     * <p>
+     * If an event can not be appended to the journal, it is not queued and its future
+     * completes exceptionally.
+     *
+     * @param journal The journal to append to, or {@code null} to stop journaling.
+     * @since 3.8.17
+     */
+    public void setJournal(@Nullable EventJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Returns the journal which records the queued events.
+     *
+     * @return The journal, or {@code null} if the events are not journaled.
+     * @since 3.8.17
+     */
+    public @Nullable EventJournal getJournal() {
+        return journal;
+    }
+
     /**
      * Internal queueing method that stores an event for later dispatch.
+     * <p>
+     * If the event type is coalesced, the event may be merged into a waiting event instead.
+     * If the channel is bounded and full, its {@link OverflowPolicy} is applied, which
+     * may block the calling thread or complete the returned future right away.
      *
      * @param channel  The channel in which the event is stored.
      * @param event    The event to be queued.
@@ -115,19 +376,181 @@ public class CallQueue {
      */
     private CompletableFuture<Event> queue(short channel, @NotNull Event event, boolean async, @Nullable Executor executor) {
         CompletableFuture<Event> future = new CompletableFuture<>();
-        channels.computeIfAbsent(channel, i -> new ConcurrentLinkedQueue<>())
-                .add(new QueuedCall(event, future, async, executor));
-
+        queue(channel, new QueuedCall(event, future, async, executor));
         return future;
     }
 
+    /**
+     * Queues a scheduled event which has become due.
+     *
+     * @param scheduled The scheduled event.
+     */
+    private void queueDue(@NotNull ScheduledCall scheduled) {
+        CompletableFuture<Event> future = scheduled.getFuture();
+        if (future.isDone()) {
+            release(scheduled.getEvent());
+            return;
+        }
+
+        queue(scheduled.getChannel(), new QueuedCall(scheduled.getEvent(), future, false, null));
+    }
+
+    /**
+     * Stores a call in the given channel, coalescing it if a rule exists for its event type.
+     * If a journal is set, the event is appended to it first, and the call fails if that
+     * is not possible.
+     *
+     * @param channel The channel in which the call is stored.
+     * @param call    The call to store.
+     */
+    private void queue(short channel, @NotNull QueuedCall call) {
+        EventJournal journal = this.journal;
+        if (journal != null) {
+            long ticket;
+            try {
+                ticket = journal.append(channel, call.event());
+            } catch (RuntimeException e) {
+                call.future().completeExceptionally(e);
+                release(call.event());
+                return;
+            }
+
+            call.future().whenComplete((event, throwable) -> journal.acknowledge(ticket));
+        }
+
+        CoalescingRule rule = coalescing.isEmpty() ? null : coalescing.get(call.event().getClass());
+        if (rule != null) {
+            channel(channel).offer(call, rule);
+        } else {
+            channel(channel).offer(call);
+        }
+    }
+
+    /**
+     * Queues all scheduled events which have become due in their channels.
+     */
+    private void advanceTimers() {
+        TimingWheel wheel = timers;
+        if (wheel != null) {
+            wheel.advance(scheduler);
+        }
+    }
+
+    /**
+     * Returns the given channel, creating it if necessary.
+     *
+     * @param channel The channel ID.
+     * @return The channel.
+     */
+    private @NotNull CallChannel channel(short channel) {
+        return channels.getOrCreate(channel);
+    }
+
     /**
      * Processes and dispatches all queued events across all channels.
+     * <p>
+     * The channels are drained round-robin, one event per channel and turn.
      */
     public void dispatchAll() {
-        for (Short channel : channels.keySet()) {
-            dispatch(channel);
+        dispatchAll(Integer.MAX_VALUE, false, 0);
+    }
+
+    /**
+     * Processes and dispatches up to the given number of queued events across all channels.
+     * <p>
+     * The channels are drained round-robin, one event per channel and turn. The next call
+     * continues with the channel which would have been next, so that a limited dispatch
+     * spreads over all channels across multiple calls.
+     *
+     * @param maxEvents The maximum number of events to dispatch.
+     * @return The number of dispatched events.
+     * @throws IllegalArgumentException If the maximum number of events is not positive.
+     * @since 3.8.17
+     */
+    public int dispatchAll(int maxEvents) {
+        return dispatchAll(requirePositive(maxEvents), false, 0);
+    }
+
+    /**
+     * Processes and dispatches queued events across all channels until the given time
+     * budget has been used up. At least one event is dispatched if any is queued.
+     * <p>
+     * The channels are drained round-robin, one event per channel and turn. The next call
+     * continues with the channel which would have been next, so that a limited dispatch
+     * spreads over all channels across multiple calls.
+     *
+     * @param budget The time available for dispatching events.
+     * @return The number of dispatched events.
+     * @throws IllegalArgumentException If the budget is negative.
+     * @since 3.8.17
+     */
+    public int dispatchAll(@NotNull Duration budget) {
+        return dispatchAll(Integer.MAX_VALUE, true, deadline(budget));
+    }
+
+    /**
+     * Processes and dispatches all queued events, draining the channels concurrently on
+     * the given executor.
+     * <p>
+     * Every channel holding queued events is drained by a task of its own, so events of
+     * different channels may be dispatched at the same time, while the events of a single
+     * channel are still dispatched one after another in FIFO order. Events queued while
+     * the channels are drained may or may not be dispatched by this call.
+     *
+     * @param executor The executor running the drains of the channels.
+     * @return A {@link CompletableFuture} that completes once all channels have been drained.
+     * @since 3.8.17
+     */
+    public CompletableFuture<Void> dispatchAll(@NotNull Executor executor) {
+        advanceTimers();
+
+        CallChannel[] active = channels.snapshot(0);
+        List<CompletableFuture<Void>> drains = new ArrayList<>(active.length);
+
+        for (CallChannel queue : active) {
+            if (queue.size() > 0) {
+                drains.add(CompletableFuture.runAsync(() -> queue.drain(dispatcher), executor));
+            }
         }
+
+        return CompletableFuture.allOf(drains.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Dispatches queued events across all channels in round-robin order.
+     *
+     * @param maxEvents The maximum number of events to dispatch.
+     * @param timed     Whether the dispatch should stop at the deadline.
+     * @param deadline  The {@link System#nanoTime()} at which a timed dispatch stops.
+     * @return The number of dispatched events.
+     */
+    private int dispatchAll(int maxEvents, boolean timed, long deadline) {
+        advanceTimers();
+
+        CallChannel[] active = channels.snapshot(cursor);
+        int remaining = active.length;
+        int dispatched = 0;
+
+        while (remaining > 0) {
+            int next = 0;
+
+            for (int i = 0; i < remaining; i++) {
+                CallChannel queue = active[i];
+                if (dispatched >= maxEvents || dispatched > 0 && timed && System.nanoTime() - deadline >= 0) {
+                    cursor = Short.toUnsignedInt(queue.id());
+                    return dispatched;
+                }
+
+                if (queue.drain(1, false, 0, dispatcher) > 0) {
+                    dispatched++;
+                    active[next++] = queue;
+                }
+            }
+
+            remaining = next;
+        }
+
+        return dispatched;
     }
 
     /**
@@ -143,38 +566,146 @@ public class CallQueue {
      * @param channel The channel ID to process queued events from.
      */
     public void dispatch(short channel) {
-        Queue<QueuedCall> queue = channels.get(channel);
+        advanceTimers();
+
+        CallChannel queue = channels.get(channel);
         if (queue == null) {
             return;
         }
 
+        queue.drain(dispatcher);
+    }
 
-        QueuedCall queuedCall;
-        while ((queuedCall = queue.poll()) != null) {
-            CompletableFuture<Event> future = queuedCall.future();
+    /**
+     * Processes and dispatches up to the given number of queued events in a specific channel.
+     * Remaining events stay queued in their order.
+     *
+     * @param channel   The channel ID to process queued events from.
+     * @param maxEvents The maximum number of events to dispatch.
+     * @return The number of dispatched events.
+     * @throws IllegalArgumentException If the maximum number of events is not positive.
+     * @since 3.8.17
+     */
+    public int dispatch(short channel, int maxEvents) {
+        requirePositive(maxEvents);
+        advanceTimers();
 
-            try {
-                Event event = queuedCall.event();
-                if (queuedCall.async()) {
-                    dispatchAsync(queuedCall, event)
-                            .whenComplete((result, throwable) -> {
-                                if (throwable != null) {
-                                    future.completeExceptionally(throwable);
-                                } else {
-                                    future.complete(event);
-                                }
-                            });
-                } else {
-                    listenerRegistry.call(event);
-                    future.complete(event);
-                }
+        CallChannel queue = channels.get(channel);
+        return queue != null ? queue.drain(maxEvents, false, 0, dispatcher) : 0;
+    }
+
+    /**
+     * Processes and dispatches queued events in a specific channel until the given time
+     * budget has been used up. At least one event is dispatched if any is queued, and
+     * remaining events stay queued in their order.
+     *
+     * @param channel The channel ID to process queued events from.
+     * @param budget  The time available for dispatching events.
+     * @return The number of dispatched events.
+     * @throws IllegalArgumentException If the budget is negative.
+     * @since 3.8.17
+     */
+    public int dispatch(short channel, @NotNull Duration budget) {
+        long deadline = deadline(budget);
+        advanceTimers();
+
+        CallChannel queue = channels.get(channel);
+        return queue != null ? queue.drain(Integer.MAX_VALUE, true, deadline, dispatcher) : 0;
+    }
+
+    /**
+     * Ensures that the given maximum number of events is positive.
+     *
+     * @param maxEvents The maximum number of events.
+     * @return The maximum number of events.
+     * @throws IllegalArgumentException If the maximum number of events is not positive.
+     */
+    private static int requirePositive(int maxEvents) {
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("The maximum number of events must be positive, but was %s!".formatted(maxEvents));
+        }
+
+        return maxEvents;
+    }
 
-            } catch (Exception exception) {
-                future.completeExceptionally(exception);
+    /**
+     * Calculates the {@link System#nanoTime()} at which the given time budget is used up.
+     *
+     * @param budget The time budget.
+     * @return The deadline.
+     * @throws IllegalArgumentException If the budget is negative.
+     */
+    private static long deadline(@NotNull Duration budget) {
+        if (budget.isNegative()) {
+            throw new IllegalArgumentException("The budget must not be negative, but was %s!".formatted(budget));
+        }
+
+        long nanos;
+        try {
+            nanos = budget.toNanos();
+        } catch (ArithmeticException e) {
+            nanos = Long.MAX_VALUE;
+        }
+
+        return System.nanoTime() + Math.min(nanos, Long.MAX_VALUE / 2);
+    }
+
+    /**
+     * Dispatches a single queued call and completes its future.
+     *
+     * @param queuedCall The call to dispatch.
+     */
+    private void dispatch(@NotNull QueuedCall queuedCall) {
+        CompletableFuture<Event> future = queuedCall.future();
+        Event event = queuedCall.event();
+
+        try {
+            if (queuedCall.async()) {
+                dispatchAsync(queuedCall, event)
+                        .whenComplete((result, throwable) -> {
+                            if (throwable != null) {
+                                future.completeExceptionally(throwable);
+                            } else {
+                                future.complete(result(event));
+                            }
+
+                            release(event);
+                        });
+            } else {
+                listenerRegistry.call(event);
+                future.complete(result(event));
+                release(event);
             }
+
+        } catch (Exception exception) {
+            future.completeExceptionally(exception);
+            release(event);
         }
+    }
+
+    /**
+     * Returns the value the future of a dispatched event completes with. {@link ReusableEvent
+     * Reusable events} are released by the queue right afterwards, so their futures complete
+     * with {@code null} instead of an instance which may already have been reset or acquired
+     * by someone else.
+     *
+     * @param event The dispatched event.
+     * @return The event, or {@code null} if it is a reusable event.
+     */
+    private static @Nullable Event result(@NotNull Event event) {
+        return event instanceof ReusableEvent ? null : event;
+    }
 
-        channels.computeIfPresent(channel, (key, q) -> q.isEmpty() ? null : q);
+    /**
+     * Releases an event the queue is done with to its {@link de.craftsblock.craftscore.event.EventPool
+     * EventPool}, if it is a pooled {@link ReusableEvent}. The event must not be accessed afterwards.
+     *
+     * @param event The event to release.
+     */
+    static void release(@NotNull Event event) {
+        if (event instanceof ReusableEvent reusable) {
+            reusable.close();
+        }
     }
 
     /**
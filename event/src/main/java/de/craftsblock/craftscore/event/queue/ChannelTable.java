@@ -0,0 +1,116 @@
+package de.craftsblock.craftscore.event.queue;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A lock-free table holding the {@link CallChannel channels} of a {@link CallQueue},
+ * indexed directly by their {@code short} id.
+ * <p>
+ * The table consists of 256 lazily allocated pages with 256 slots each, so that only
+ * the pages of channels which are actually used take up memory. Pages and channels are
+ * published with a single compare-and-set, and looking up a channel is two plain array
+ * reads without boxing the channel id.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see CallQueue
+ * @since 3.8.17
+ */
+final class ChannelTable {
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int SLOT_MASK = PAGE_SIZE - 1;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<CallChannel>> pages = new AtomicReferenceArray<>(PAGE_SIZE);
+
+    /**
+     * Returns the given channel, if it has been created.
+     *
+     * @param channel The channel ID.
+     * @return The channel, or {@code null} if it does not exist.
+     */
+    @Nullable CallChannel get(short channel) {
+        int index = Short.toUnsignedInt(channel);
+
+        AtomicReferenceArray<CallChannel> page = pages.get(index >>> PAGE_BITS);
+        return page != null ? page.get(index & SLOT_MASK) : null;
+    }
+
+    /**
+     * Returns the given channel, creating it if necessary.
+     *
+     * @param channel The channel ID.
+     * @return The channel.
+     */
+    @NotNull CallChannel getOrCreate(short channel) {
+        int index = Short.toUnsignedInt(channel);
+
+        AtomicReferenceArray<CallChannel> page = pages.get(index >>> PAGE_BITS);
+        if (page == null) {
+            AtomicReferenceArray<CallChannel> created = new AtomicReferenceArray<>(PAGE_SIZE);
+            page = pages.compareAndSet(index >>> PAGE_BITS, null, created) ? created : pages.get(index >>> PAGE_BITS);
+        }
+
+        CallChannel existing = page.get(index & SLOT_MASK);
+        if (existing != null) {
+            return existing;
+        }
+
+        CallChannel created = new CallChannel(channel);
+        return page.compareAndSet(index & SLOT_MASK, null, created) ? created : page.get(index & SLOT_MASK);
+    }
+
+    /**
+     * Performs the given action for every channel which has been created, in the order
+     * of their unsigned channel ids.
+     *
+     * @param action The action to perform.
+     */
+    void forEach(@NotNull Consumer<CallChannel> action) {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            AtomicReferenceArray<CallChannel> page = pages.get(i);
+            if (page == null) {
+                continue;
+            }
+
+            for (int j = 0; j < PAGE_SIZE; j++) {
+                CallChannel channel = page.get(j);
+                if (channel != null) {
+                    action.accept(channel);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns all channels which have been created, in the order of their unsigned channel
+     * ids, starting at the given id and wrapping around after the last one.
+     *
+     * @param from The unsigned channel id to start at.
+     * @return The channels.
+     */
+    @NotNull CallChannel[] snapshot(int from) {
+        List<CallChannel> created = new ArrayList<>();
+        forEach(created::add);
+
+        int start = 0;
+        while (start < created.size() && Short.toUnsignedInt(created.get(start).id()) < from) {
+            start++;
+        }
+
+        CallChannel[] snapshot = new CallChannel[created.size()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = created.get((start + i) % snapshot.length);
+        }
+
+        return snapshot;
+    }
+
+}
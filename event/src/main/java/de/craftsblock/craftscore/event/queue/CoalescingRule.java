@@ -0,0 +1,48 @@
+package de.craftsblock.craftscore.event.queue;
+
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Describes how queued events of a single type are coalesced by a {@link CallQueue}.
+ *
+ * @param key   The function extracting the coalescing key of an event.
+ * @param merge The function merging a pending event with a newer one.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see CallQueue#coalesce(Class, Function, BinaryOperator)
+ * @since 3.8.17
+ */
+record CoalescingRule(@NotNull Function<Event, ?> key, @NotNull BinaryOperator<Event> merge) {
+
+    /**
+     * Creates a rule from the typed functions passed to the {@link CallQueue}.
+     *
+     * @param key   The function extracting the coalescing key of an event.
+     * @param merge The function merging a pending event with a newer one.
+     * @param <T>   The type of the events.
+     * @return The created rule.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Event> @NotNull CoalescingRule of(@NotNull Function<? super T, ?> key,
+                                                        @NotNull BinaryOperator<T> merge) {
+        return new CoalescingRule(
+                (Function<Event, ?>) key,
+                (older, newer) -> merge.apply((T) older, (T) newer)
+        );
+    }
+
+    /**
+     * The identity of a pending coalesced event within a channel.
+     *
+     * @param type The concrete class of the event.
+     * @param key  The coalescing key of the event.
+     */
+    record Key(@NotNull Class<?> type, @Nullable Object key) {
+    }
+
+}
@@ -0,0 +1,66 @@
+package de.craftsblock.craftscore.event.queue;
+
+import de.craftsblock.craftscore.buffer.BufferUtil;
+import de.craftsblock.craftscore.buffer.ObjectSerializer;
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Converts the events of a single type into the binary form stored by an {@link EventJournal}
+ * and back.
+ * <p>
+ * A codec writes only the state of the event itself. The journal stores the event type, the
+ * sequence, the time and the channel of each record and passes each record's payload to the
+ * codec of its type when the record is read again.
+ *
+ * @param <T> The type of the events.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventJournal#codec(Class, EventCodec)
+ * @since 3.8.17
+ */
+public interface EventCodec<T extends Event> {
+
+    /**
+     * Writes the state of an event into the buffer. The buffer grows automatically if the
+     * event does not fit, in which case the codec is invoked again.
+     *
+     * @param event  The event to write.
+     * @param buffer The buffer to write to.
+     */
+    void encode(@NotNull T event, @NotNull BufferUtil buffer);
+
+    /**
+     * Reads an event from the buffer, which contains exactly the bytes written by
+     * {@link #encode(Event, BufferUtil)}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The decoded event.
+     */
+    @NotNull T decode(@NotNull BufferUtil buffer);
+
+    /**
+     * Returns a codec which stores events using the {@link ObjectSerializer}, and therefore
+     * java's object serialization. It requires the events to be {@link java.io.Serializable}.
+     *
+     * @param <T> The type of the events.
+     * @return The serializing codec.
+     */
+    static <T extends Event> @NotNull EventCodec<T> serializing() {
+        return new EventCodec<>() {
+
+            @Override
+            public void encode(@NotNull T event, @NotNull BufferUtil buffer) {
+                buffer.getRaw().put(ObjectSerializer.serialize(event));
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public @NotNull T decode(@NotNull BufferUtil buffer) {
+                return (T) ObjectSerializer.deserialize(buffer.getRemainingBytes());
+            }
+
+        };
+    }
+
+}
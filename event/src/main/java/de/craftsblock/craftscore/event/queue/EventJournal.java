@@ -0,0 +1,744 @@
+package de.craftsblock.craftscore.event.queue;
+
+import de.craftsblock.craftscore.buffer.BufferUtil;
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.ListenerRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of the events queued in a {@link CallQueue}, which allows to recover
+ * events that have not been processed before a crash and to replay past events for debugging.
+ * <p>
+ * The journal consists of segment files of a fixed size in a directory, which are mapped
+ * into memory. Appending an event therefore only copies its encoded form into the mapping,
+ * without a system call per event, and the operating system writes the pages back to disk
+ * in the background. Once a segment is full, the journal rolls over to a new one.
+ * <p>
+ * Every record carries a checksum and is committed by writing its length last, so records
+ * torn by a crash are detected and ignored when the journal is opened again. Each record
+ * also has a flag which is set once the queue has processed its event, so that
+ * {@link #recover(CallQueue)} only queues the events which have been lost.
+ * <p>
+ * Events are encoded by the {@link EventCodec} registered for their exact type. Types
+ * without a codec are stored using java's object serialization, which requires them to be
+ * {@link Serializable}.
+ *
+ * <pre>{@code
+ * EventJournal journal = new EventJournal(Path.of("journal"))
+ *         .codec(PlayerMoveEvent.class, new PlayerMoveEventCodec());
+ * registry.getCallQueue().setJournal(journal);
+ * journal.recover(registry.getCallQueue());
+ * }</pre>
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see CallQueue#setJournal(EventJournal)
+ * @since 3.8.17
+ */
+public final class EventJournal implements AutoCloseable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    private static final int MIN_SEGMENT_SIZE = 4096;
+    private static final String SUFFIX = ".journal";
+
+    // Layout of a record: length, checksum, state, followed by the body of the given length
+    private static final int LENGTH = 0;
+    private static final int CHECKSUM = 4;
+    private static final int STATE = 8;
+    private static final int HEADER = 9;
+
+    // Layout of a body: sequence, timestamp, channel, type name, payload
+    private static final int SEQUENCE = 0;
+    private static final int TIMESTAMP = 8;
+    private static final int CHANNEL = 16;
+    private static final int TYPE = 18;
+
+    private static final byte PENDING = 0;
+    private static final byte PROCESSED = 1;
+
+    private static final EventCodec<Event> SERIALIZING = EventCodec.serializing();
+    private static final ClassValue<byte[]> TYPE_NAMES = new ClassValue<>() {
+        @Override
+        protected byte[] computeValue(@NotNull Class<?> type) {
+            return type.getName().getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long recoverable;
+    private final ClassLoader classLoader;
+
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<Class<?>, EventCodec<?>> codecs = new ConcurrentHashMap<>();
+    private final Map<String, Class<? extends Event>> types = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32C checksum = new CRC32C();
+    private BufferUtil scratch = BufferUtil.allocate(MIN_SEGMENT_SIZE);
+    private Segment current;
+    private long nextSequence;
+    private boolean closed = false;
+
+    /**
+     * Opens the journal in the given directory with segments of 64 MiB, creating the
+     * directory if it does not exist.
+     *
+     * @param directory The directory of the segment files.
+     * @throws UncheckedIOException If the directory or its segments can not be opened.
+     */
+    public EventJournal(@NotNull Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the journal in the given directory, creating the directory if it does not exist.
+     * Existing segments keep their size, while new segments are created with the given size.
+     *
+     * @param directory   The directory of the segment files.
+     * @param segmentSize The size of new segment files in bytes, which also limits the size of a single record.
+     * @throws IllegalArgumentException If the segment size is smaller than 4096 bytes.
+     * @throws UncheckedIOException     If the directory or its segments can not be opened.
+     */
+    public EventJournal(@NotNull Path directory, int segmentSize) {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("The segment size must be at least %s bytes, but was %s!".formatted(
+                    MIN_SEGMENT_SIZE, segmentSize
+            ));
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        this.classLoader = loader != null ? loader : EventJournal.class.getClassLoader();
+
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path path : stream) {
+                    String name = path.getFileName().toString();
+                    try {
+                        int number = Integer.parseInt(name.substring(0, name.length() - SUFFIX.length()));
+                        segments.put(number, Segment.open(path, number));
+                    } catch (NumberFormatException ignored) {
+                        // Not a segment of this journal
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the event journal at %s: %s".formatted(directory, e.getMessage()), e);
+        }
+
+        long next = 0;
+        for (Segment segment : segments.values()) {
+            next = Math.max(next, segment.lastSequence + 1);
+        }
+
+        this.nextSequence = next;
+        this.recoverable = next;
+
+        if (!segments.isEmpty()) {
+            current = segments.lastEntry().getValue();
+            current.clearTail();
+        }
+    }
+
+    /**
+     * Registers the codec for events of exactly the given type.
+     *
+     * @param type  The class of the events.
+     * @param codec The codec encoding and decoding the events.
+     * @param <T>   The type of the events.
+     * @return This journal for chaining.
+     */
+    public <T extends Event> @NotNull EventJournal codec(@NotNull Class<T> type, @NotNull EventCodec<T> codec) {
+        codecs.put(type, codec);
+        types.put(type.getName(), type);
+        return this;
+    }
+
+    /**
+     * Appends an event to the journal.
+     *
+     * @param channel The channel in which the event is queued.
+     * @param event   The event to append.
+     * @return The ticket of the record, which is passed to {@link #acknowledge(long)} once the event has been processed.
+     * @throws IllegalArgumentException If the event can not be encoded or is too large for a segment.
+     * @throws IllegalStateException    If the journal has been closed.
+     * @throws UncheckedIOException     If a new segment can not be created.
+     */
+    long append(short channel, @NotNull Event event) {
+        EventCodec<Event> codec = codecOf(event.getClass());
+        byte[] type = TYPE_NAMES.get(event.getClass());
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The event journal has been closed!");
+            }
+
+            long sequence = nextSequence;
+            long timestamp = System.currentTimeMillis();
+            ByteBuffer body = encode(codec, event, sequence, timestamp, channel, type);
+            int length = body.position();
+
+            Segment segment = current;
+            if (segment == null || segment.buffer.capacity() - segment.position < HEADER + length) {
+                segment = roll();
+            }
+
+            checksum.reset();
+            checksum.update(body.array(), 0, length);
+
+            int offset = segment.position;
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.put(offset + HEADER, body.array(), 0, length);
+            buffer.putInt(offset + CHECKSUM, (int) checksum.getValue());
+            buffer.put(offset + STATE, PENDING);
+            buffer.putInt(offset + LENGTH, length);
+
+            segment.pending.incrementAndGet();
+            segment.record(sequence, timestamp);
+            segment.position = offset + HEADER + length;
+
+            nextSequence = sequence + 1;
+            return (long) segment.number << 32 | offset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encodes the body of a record into the scratch buffer, growing the buffer
+     * until the body fits. Must only be called while holding the lock.
+     *
+     * @param codec     The codec of the event.
+     * @param event     The event to encode.
+     * @param sequence  The sequence of the record.
+     * @param timestamp The time at which the event has been queued.
+     * @param channel   The channel in which the event is queued.
+     * @param type      The encoded name of the event type.
+     * @return The buffer holding the body up to its position.
+     * @throws IllegalArgumentException If the body does not fit into a segment.
+     */
+    private @NotNull ByteBuffer encode(@NotNull EventCodec<Event> codec, @NotNull Event event,
+                                       long sequence, long timestamp, short channel, byte[] type) {
+        int limit = segmentSize - HEADER;
+
+        while (true) {
+            ByteBuffer raw = scratch.getRaw().clear();
+            try {
+                raw.putLong(sequence).putLong(timestamp).putShort(channel);
+                scratch.putVarInt(type.length).getRaw().put(type);
+                codec.encode(event, scratch);
+
+                // The codec may have grown the buffer on its own
+                ByteBuffer body = scratch.getRaw();
+                if (body.position() > limit) {
+                    throw new BufferOverflowException();
+                }
+
+                return body;
+            } catch (BufferOverflowException e) {
+                int capacity = scratch.getRaw().capacity();
+                if (capacity >= limit) {
+                    throw new IllegalArgumentException("The event %s does not fit into a segment of %s bytes!".formatted(
+                            event, segmentSize
+                    ));
+                }
+
+                scratch = BufferUtil.allocate((int) Math.min((long) capacity << 1, limit));
+            }
+        }
+    }
+
+    /**
+     * Creates a new segment and makes it the current one. Must only be called while holding the lock.
+     *
+     * @return The new segment.
+     * @throws UncheckedIOException If the segment can not be created.
+     */
+    private @NotNull Segment roll() {
+        Segment previous = current;
+        if (previous != null) {
+            previous.buffer.force();
+        }
+
+        int number = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+        Path path = directory.resolve("%010d%s".formatted(number, SUFFIX));
+
+        try {
+            current = Segment.create(path, number, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the journal segment %s: %s".formatted(path, e.getMessage()), e);
+        }
+
+        segments.put(number, current);
+        return current;
+    }
+
+    /**
+     * Marks a record as processed.
+     *
+     * @param ticket The ticket returned when the record has been appended.
+     */
+    void acknowledge(long ticket) {
+        Segment segment = segments.get((int) (ticket >>> 32));
+        if (segment == null) {
+            return;
+        }
+
+        int offset = (int) ticket;
+        if (segment.buffer.get(offset + STATE) == PENDING) {
+            segment.buffer.put(offset + STATE, PROCESSED);
+            segment.pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Queues all events which have been journaled before this journal was opened, but have
+     * not been processed, in the channels they were originally queued in. The records of the
+     * recovered events are marked as processed once they have been queued again, so that
+     * each event is only recovered once.
+     * <p>
+     * This should be called before new events are queued, so that the recovered events are
+     * dispatched first. If the journal is already attached to the queue, the recovered events
+     * are journaled again and survive another crash until they have been dispatched.
+     *
+     * @param queue The queue to feed the recovered events into.
+     * @return The number of recovered events.
+     */
+    public int recover(@NotNull CallQueue queue) {
+        List<JournalRecord> records = new ArrayList<>();
+        List<Long> tickets = new ArrayList<>();
+
+        read(0, recoverable - 1, Long.MIN_VALUE, Long.MAX_VALUE, true, (ticket, record) -> {
+            records.add(record);
+            tickets.add(ticket);
+        });
+
+        for (int i = 0; i < records.size(); i++) {
+            JournalRecord record = records.get(i);
+            queue.queue(record.channel(), record.event());
+            acknowledge(tickets.get(i));
+        }
+
+        return records.size();
+    }
+
+    /**
+     * Dispatches the journaled events within the given range of sequences synchronously
+     * to the registry, in the order they have been queued. Both processed and unprocessed
+     * events are replayed, while the journal itself is left unchanged.
+     *
+     * @param registry     The registry to dispatch the events to.
+     * @param fromSequence The first sequence to replay.
+     * @param toSequence   The last sequence to replay.
+     * @return The number of replayed events.
+     */
+    public int replay(@NotNull ListenerRegistry registry, long fromSequence, long toSequence) {
+        int[] count = {0};
+        read(fromSequence, toSequence, record -> {
+            registry.call(record.event());
+            count[0]++;
+        });
+
+        return count[0];
+    }
+
+    /**
+     * Dispatches the events journaled within the given period synchronously to the registry,
+     * in the order they have been queued. Both processed and unprocessed events are replayed,
+     * while the journal itself is left unchanged.
+     *
+     * @param registry The registry to dispatch the events to.
+     * @param from     The start of the period, inclusive.
+     * @param to       The end of the period, exclusive.
+     * @return The number of replayed events.
+     */
+    public int replay(@NotNull ListenerRegistry registry, @NotNull Instant from, @NotNull Instant to) {
+        int[] count = {0};
+        read(from, to, record -> {
+            registry.call(record.event());
+            count[0]++;
+        });
+
+        return count[0];
+    }
+
+    /**
+     * Passes the journaled events within the given range of sequences to the action,
+     * in the order they have been queued.
+     *
+     * @param fromSequence The first sequence to read.
+     * @param toSequence   The last sequence to read.
+     * @param action       The action receiving the records.
+     */
+    public void read(long fromSequence, long toSequence, @NotNull Consumer<JournalRecord> action) {
+        read(fromSequence, toSequence, Long.MIN_VALUE, Long.MAX_VALUE, false, (ticket, record) -> action.accept(record));
+    }
+
+    /**
+     * Passes the events journaled within the given period to the action, in the order
+     * they have been queued.
+     *
+     * @param from   The start of the period, inclusive.
+     * @param to     The end of the period, exclusive.
+     * @param action The action receiving the records.
+     */
+    public void read(@NotNull Instant from, @NotNull Instant to, @NotNull Consumer<JournalRecord> action) {
+        read(0, Long.MAX_VALUE, from.toEpochMilli(), to.toEpochMilli(), false, (ticket, record) -> action.accept(record));
+    }
+
+    /**
+     * Passes the records within the given ranges to the visitor, in the order they have been appended.
+     *
+     * @param fromSequence The first sequence to read.
+     * @param toSequence   The last sequence to read.
+     * @param fromTime     The start of the period in epoch milliseconds, inclusive.
+     * @param toTime       The end of the period in epoch milliseconds, exclusive.
+     * @param pendingOnly  Whether only records which have not been processed should be read.
+     * @param visitor      The visitor receiving the records.
+     */
+    private void read(long fromSequence, long toSequence, long fromTime, long toTime,
+                      boolean pendingOnly, @NotNull Visitor visitor) {
+        for (Segment segment : segments.values()) {
+            int end = segment.position;
+            if (end == 0 || segment.lastSequence < fromSequence || segment.firstSequence > toSequence
+                    || segment.maxTime < fromTime || segment.minTime >= toTime) {
+                continue;
+            }
+
+            MappedByteBuffer buffer = segment.buffer;
+            for (int offset = 0; offset < end; offset += HEADER + buffer.getInt(offset + LENGTH)) {
+                int body = offset + HEADER;
+                long sequence = buffer.getLong(body + SEQUENCE);
+                long timestamp = buffer.getLong(body + TIMESTAMP);
+                boolean processed = buffer.get(offset + STATE) != PENDING;
+
+                if (sequence < fromSequence || sequence > toSequence || timestamp < fromTime || timestamp >= toTime
+                        || (pendingOnly && processed)) {
+                    continue;
+                }
+
+                short channel = buffer.getShort(body + CHANNEL);
+                Event event = decode(buffer.slice(body + TYPE, buffer.getInt(offset + LENGTH) - TYPE));
+                visitor.visit((long) segment.number << 32 | offset,
+                        new JournalRecord(sequence, Instant.ofEpochMilli(timestamp), channel, event, processed));
+            }
+        }
+    }
+
+    /**
+     * Decodes the event of a record.
+     *
+     * @param data The type name and payload of the record.
+     * @return The decoded event.
+     * @throws IllegalStateException If the event type can not be loaded.
+     */
+    private @NotNull Event decode(@NotNull ByteBuffer data) {
+        BufferUtil buffer = new BufferUtil(data);
+        String name = new String(buffer.getNBytes(buffer.getVarInt()), StandardCharsets.UTF_8);
+
+        Class<? extends Event> type = types.computeIfAbsent(name, this::load);
+        return codecOf(type).decode(new BufferUtil(data.slice()));
+    }
+
+    /**
+     * Loads an event type by its name.
+     *
+     * @param name The binary name of the event type.
+     * @return The event type.
+     * @throws IllegalStateException If the class can not be found or is no event.
+     */
+    private @NotNull Class<? extends Event> load(@NotNull String name) {
+        try {
+            Class<?> type = Class.forName(name, false, classLoader);
+            if (!Event.class.isAssignableFrom(type)) {
+                throw new IllegalStateException("The journaled type %s is no event!".formatted(name));
+            }
+
+            return type.asSubclass(Event.class);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("The journaled event type %s could not be found!".formatted(name), e);
+        }
+    }
+
+    /**
+     * Returns the codec of the given event type.
+     *
+     * @param type The exact event type.
+     * @return The registered codec, or the serializing codec for serializable types.
+     * @throws IllegalArgumentException If there is no codec for the event type and it is not serializable.
+     */
+    @SuppressWarnings("unchecked")
+    private @NotNull EventCodec<Event> codecOf(@NotNull Class<? extends Event> type) {
+        EventCodec<?> codec = codecs.get(type);
+        if (codec != null) {
+            return (EventCodec<Event>) codec;
+        }
+
+        if (!Serializable.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("There is no codec for the event type %s, which is not serializable either!".formatted(
+                    type.getName()
+            ));
+        }
+
+        return SERIALIZING;
+    }
+
+    /**
+     * Forces all changes of the segments to be written to disk. The operating system writes
+     * them back on its own eventually, which survives a crash of the process, but not
+     * necessarily a crash of the machine.
+     */
+    public void sync() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * Deletes all segments whose events have been processed, except for the current one.
+     * Segments which can not be deleted are kept.
+     *
+     * @return The number of deleted segments.
+     */
+    public int compact() {
+        int deleted = 0;
+
+        lock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                if (segment == current || segment.pending.get() > 0) {
+                    continue;
+                }
+
+                try {
+                    Files.deleteIfExists(segment.path);
+                    segments.remove(segment.number, segment);
+                    deleted++;
+                } catch (IOException ignored) {
+                    // Some platforms refuse to delete mapped files, the segment is kept until the next compaction
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return deleted;
+    }
+
+    /**
+     * Returns the sequence which is assigned to the next journaled event.
+     *
+     * @return The next sequence.
+     */
+    public long getNextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of journaled events which have not been processed yet.
+     *
+     * @return The number of pending events.
+     */
+    public long getPendingCount() {
+        long pending = 0;
+        for (Segment segment : segments.values()) {
+            pending += segment.pending.get();
+        }
+
+        return pending;
+    }
+
+    /**
+     * Returns the number of segment files of this journal.
+     *
+     * @return The number of segments.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Stops appending events and writes all changes to disk. Records can still be read
+     * and acknowledged afterwards. The segments are unmapped once the journal has been
+     * garbage collected.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            sync();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Receives the records read from the journal together with their tickets.
+     */
+    @FunctionalInterface
+    private interface Visitor {
+
+        /**
+         * Visits a single record.
+         *
+         * @param ticket The ticket of the record.
+         * @param record The record.
+         */
+        void visit(long ticket, @NotNull JournalRecord record);
+
+    }
+
+    /**
+     * A single, memory-mapped segment file of the journal.
+     */
+    private static final class Segment {
+
+        private final int number;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger pending = new AtomicInteger();
+
+        // The ranges are published together with the records by writing the position last
+        private volatile int position = 0;
+        private long firstSequence = -1;
+        private long lastSequence = -1;
+        private long minTime = Long.MAX_VALUE;
+        private long maxTime = Long.MIN_VALUE;
+
+        /**
+         * Creates a new segment.
+         *
+         * @param number The number of the segment.
+         * @param path   The path of the segment file.
+         * @param buffer The mapping of the segment file.
+         */
+        private Segment(int number, @NotNull Path path, @NotNull MappedByteBuffer buffer) {
+            this.number = number;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Creates a new, empty segment file.
+         *
+         * @param path   The path of the segment file.
+         * @param number The number of the segment.
+         * @param size   The size of the segment file.
+         * @return The created segment.
+         * @throws IOException If the file can not be created or mapped.
+         */
+        private static @NotNull Segment create(@NotNull Path path, int number, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        /**
+         * Opens an existing segment file and scans its records. The scan stops at the
+         * first record which has not been committed or whose checksum does not match.
+         *
+         * @param path   The path of the segment file.
+         * @param number The number of the segment.
+         * @return The opened segment.
+         * @throws IOException If the file can not be opened or mapped.
+         */
+        private static @NotNull Segment open(@NotNull Path path, int number) throws IOException {
+            Segment segment;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = new Segment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            }
+
+            MappedByteBuffer buffer = segment.buffer;
+            CRC32C checksum = new CRC32C();
+
+            int position = 0;
+            while (position + HEADER + TYPE <= buffer.capacity()) {
+                int length = buffer.getInt(position + LENGTH);
+                if (length < TYPE || length > buffer.capacity() - position - HEADER) {
+                    break;
+                }
+
+                checksum.reset();
+                checksum.update(buffer.slice(position + HEADER, length));
+                if ((int) checksum.getValue() != buffer.getInt(position + CHECKSUM)) {
+                    break;
+                }
+
+                if (buffer.get(position + STATE) == PENDING) {
+                    segment.pending.incrementAndGet();
+                }
+
+                segment.record(buffer.getLong(position + HEADER + SEQUENCE), buffer.getLong(position + HEADER + TIMESTAMP));
+                position += HEADER + length;
+            }
+
+            segment.position = position;
+            return segment;
+        }
+
+        /**
+         * Updates the ranges of this segment with an appended record.
+         *
+         * @param sequence  The sequence of the record.
+         * @param timestamp The timestamp of the record.
+         */
+        private void record(long sequence, long timestamp) {
+            if (firstSequence < 0) {
+                firstSequence = sequence;
+            }
+
+            lastSequence = sequence;
+            minTime = Math.min(minTime, timestamp);
+            maxTime = Math.max(maxTime, timestamp);
+        }
+
+        /**
+         * Zeroes the bytes following the last valid record, so that the remains of a torn
+         * record are not mistaken for a record once new records have been appended.
+         */
+        private void clearTail() {
+            for (int i = position; i < buffer.capacity(); i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                }
+            }
+        }
+
+    }
+
+}
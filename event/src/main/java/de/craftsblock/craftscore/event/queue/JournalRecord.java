@@ -0,0 +1,24 @@
+package de.craftsblock.craftscore.event.queue;
+
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+
+/**
+ * A single event read from an {@link EventJournal}.
+ *
+ * @param sequence  The sequence of the record, which increases with every journaled event
+ * @param timestamp The point in time at which the event has been queued
+ * @param channel   The channel in which the event has been queued
+ * @param event     The decoded event
+ * @param processed Whether the event has been processed by the queue, which includes
+ *                  events which have been dropped or merged into other events
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see EventJournal
+ * @since 3.8.17
+ */
+public record JournalRecord(long sequence, @NotNull Instant timestamp, short channel,
+                            @NotNull Event event, boolean processed) {
+}
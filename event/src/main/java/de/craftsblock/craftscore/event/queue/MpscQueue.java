@@ -0,0 +1,141 @@
+package de.craftsblock.craftscore.event.queue;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An unbounded, lock-free queue for many producers and a single consumer.
+ * <p>
+ * Elements are stored in a linked list of fixed-size array chunks. Producers claim
+ * a slot in the current tail chunk with a single atomic increment and only allocate
+ * once per {@value #CHUNK_SIZE} elements, when the tail chunk is full. The consumer
+ * reads the slots in order and follows the chain of chunks, so neither side boxes or
+ * wraps the elements.
+ * <p>
+ * {@link #poll()} must never be called by more than one thread at a time.
+ *
+ * @param <E> The type of the elements.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see CallChannel
+ * @since 3.8.17
+ */
+final class MpscQueue<E> {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TAIL = lookup.findVarHandle(MpscQueue.class, "tail", Chunk.class);
+            NEXT = lookup.findVarHandle(Chunk.class, "next", Chunk.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile Chunk<E> tail;
+    private Chunk<E> head;
+    private int headIndex = 0;
+
+    private final LongAdder offered = new LongAdder();
+    private volatile long polled = 0;
+
+    /**
+     * Creates a new, empty queue.
+     */
+    MpscQueue() {
+        this.head = this.tail = new Chunk<>();
+    }
+
+    /**
+     * Adds an element to the end of this queue. May be called by any number of threads.
+     *
+     * @param element The element to add.
+     */
+    void offer(@NotNull E element) {
+        while (true) {
+            Chunk<E> current = tail;
+
+            int index = current.claimed.getAndIncrement();
+            if (index < CHUNK_SIZE) {
+                current.elements.set(index, element);
+                offered.increment();
+                return;
+            }
+
+            Chunk<E> next = current.next;
+            if (next == null) {
+                Chunk<E> created = new Chunk<>();
+                next = NEXT.compareAndSet(current, null, created) ? created : current.next;
+            }
+
+            TAIL.compareAndSet(this, current, next);
+        }
+    }
+
+    /**
+     * Removes the first element of this queue. Must only be called by the consumer.
+     * <p>
+     * An element whose slot has already been claimed by a producer, but which has not
+     * been stored yet, is not visible. In this case {@code null} is returned, and the
+     * element is returned by one of the next calls.
+     *
+     * @return The removed element, or {@code null} if there is no visible element.
+     */
+    @Nullable E poll() {
+        Chunk<E> current = head;
+        if (headIndex == CHUNK_SIZE) {
+            Chunk<E> next = current.next;
+            if (next == null) {
+                return null;
+            }
+
+            head = current = next;
+            headIndex = 0;
+        }
+
+        E element = current.elements.get(headIndex);
+        if (element == null) {
+            return null;
+        }
+
+        current.elements.lazySet(headIndex++, null);
+        polled = polled + 1;
+        return element;
+    }
+
+    /**
+     * Returns the number of elements in this queue. The result is only an estimate
+     * while elements are added or removed concurrently.
+     *
+     * @return The number of elements.
+     */
+    int size() {
+        return (int) Math.max(0, offered.sum() - polled);
+    }
+
+    /**
+     * A fixed-size chunk of slots.
+     *
+     * @param <E> The type of the elements.
+     */
+    private static final class Chunk<E> {
+
+        private final AtomicReferenceArray<E> elements = new AtomicReferenceArray<>(CHUNK_SIZE);
+        private final AtomicInteger claimed = new AtomicInteger();
+        private volatile Chunk<E> next;
+
+    }
+
+}
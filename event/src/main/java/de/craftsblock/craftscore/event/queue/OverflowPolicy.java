@@ -0,0 +1,55 @@
+package de.craftsblock.craftscore.event.queue;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Defines how a bounded {@link CallQueue} channel reacts if an event is queued
+ * while the channel is already filled up to its capacity.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see CallQueue#configure(short, int, OverflowPolicy)
+ * @since 3.8.17
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Blocks the queueing thread until the channel has been drained far enough to
+     * take the event. If the thread is interrupted while waiting, the future of the
+     * event completes exceptionally with an {@link InterruptedException}.
+     * <p>
+     * The thread draining a channel never blocks on it, as nobody else could make room
+     * while it waits. Events queued by listeners which run during the drain of their own
+     * channel are therefore added even if the channel is full, and are dispatched from the
+     * channel as usual.
+     */
+    BLOCK,
+
+    /**
+     * Removes the oldest queued event from the channel to make room for the new one.
+     * The future of the removed event is cancelled.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Discards the new event. Its future is cancelled right away.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Rejects the new event. Its future completes exceptionally with a
+     * {@link RejectedExecutionException}.
+     */
+    FAIL,
+
+    /**
+     * Replaces the most recently queued event of the same class with the new event.
+     * The future of the replaced event completes together with the future of the new
+     * event. If no such event is queued, the new event is rejected like with {@link #FAIL}.
+     * <p>
+     * Events of {@link CallQueue#coalesce(Class, java.util.function.Function) coalesced} types
+     * are merged by their coalescing key before the capacity is checked.
+     */
+    COALESCE
+
+}
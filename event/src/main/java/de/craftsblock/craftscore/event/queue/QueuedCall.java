@@ -1,6 +1,8 @@
 package de.craftsblock.craftscore.event.queue;
 
 import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -17,13 +19,47 @@ import java.util.concurrent.Executor;
  * @param future        The future representing the result of the event execution
  * @param async         Whether the event should be executed asynchronously
  * @param asyncExecutor The executor used for asynchronous execution, if applicable
+ * @param coalesced     The pending coalesced event this call stands for, if applicable
  * @author Philipp Maywald
  * @author CraftsBlock
  * @see CallQueue
  * @since 3.8.13
  */
 record QueuedCall(Event event, CompletableFuture<Event> future,
-                  boolean async, Executor asyncExecutor) {
+                  boolean async, Executor asyncExecutor,
+                  @Nullable CallChannel.Coalesced coalesced) {
+
+    /**
+     * Creates a queued call which is not subject to coalescing.
+     *
+     * @param event         The event instance that is scheduled for execution
+     * @param future        The future representing the result of the event execution
+     * @param async         Whether the event should be executed asynchronously
+     * @param asyncExecutor The executor used for asynchronous execution, if applicable
+     */
+    QueuedCall(Event event, CompletableFuture<Event> future, boolean async, Executor asyncExecutor) {
+        this(event, future, async, asyncExecutor, null);
+    }
+
+    /**
+     * Returns a copy of this call dispatching the given event instead.
+     *
+     * @param event The event to dispatch.
+     * @return The copied call.
+     */
+    @NotNull QueuedCall withEvent(@NotNull Event event) {
+        return new QueuedCall(event, future, async, asyncExecutor, null);
+    }
+
+    /**
+     * Returns a copy of this call standing for the given pending coalesced event.
+     *
+     * @param coalesced The pending coalesced event.
+     * @return The copied call.
+     */
+    @NotNull QueuedCall withCoalesced(@NotNull CallChannel.Coalesced coalesced) {
+        return new QueuedCall(event, future, async, asyncExecutor, coalesced);
+    }
 
     /**
      * Determines whether this queued call has a dedicated asynchronous executor
@@ -0,0 +1,140 @@
+package de.craftsblock.craftscore.event.queue;
+
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A handle to an event which has been scheduled for a later point in time
+ * using {@link CallQueue#queueAfter(short, java.time.Duration, Event)} or
+ * {@link CallQueue#queueAt(short, java.time.Instant, Event)}.
+ * <p>
+ * Once the event is due, it is queued in its channel and dispatched together with the
+ * other queued events of that channel. Until then, the scheduled event can be cancelled.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see CallQueue
+ * @since 3.8.17
+ */
+public final class ScheduledCall {
+
+    private static final int PENDING = 0;
+    private static final int FIRED = 1;
+    private static final int CANCELLED = 2;
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(ScheduledCall.class, "state", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final TimingWheel wheel;
+    private final short channel;
+    private final Event event;
+    private final CompletableFuture<Event> future = new CompletableFuture<>();
+    final long deadline;
+
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile int state = PENDING;
+
+    ScheduledCall previous;
+    ScheduledCall next;
+    int level = -1;
+
+    /**
+     * Creates a new scheduled call.
+     *
+     * @param wheel    The timing wheel holding the call.
+     * @param channel  The channel in which the event is queued once it is due.
+     * @param event    The scheduled event.
+     * @param deadline The tick at which the event is due.
+     */
+    ScheduledCall(@NotNull TimingWheel wheel, short channel, @NotNull Event event, long deadline) {
+        this.wheel = wheel;
+        this.channel = channel;
+        this.event = event;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Cancels the scheduled event, if it is not due yet. The future of the event is
+     * cancelled as well, and a pooled {@link de.craftsblock.craftscore.event.ReusableEvent
+     * reusable event} is released to its pool.
+     *
+     * @return {@code true} if the event has been cancelled, {@code false} if it has
+     * already been queued or cancelled before.
+     */
+    public boolean cancel() {
+        if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+            return false;
+        }
+
+        wheel.cancelled(this);
+        future.cancel(false);
+        CallQueue.release(event);
+        return true;
+    }
+
+    /**
+     * Marks the scheduled event as due.
+     *
+     * @return {@code true} if the event is due, {@code false} if it has been cancelled.
+     */
+    boolean fire() {
+        return STATE.compareAndSet(this, PENDING, FIRED);
+    }
+
+    /**
+     * Returns whether the scheduled event has been cancelled.
+     *
+     * @return {@code true} if the event has been cancelled, otherwise {@code false}.
+     */
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    /**
+     * Returns whether the scheduled event has been queued in its channel.
+     *
+     * @return {@code true} if the event is due, otherwise {@code false}.
+     */
+    public boolean isDue() {
+        return state == FIRED;
+    }
+
+    /**
+     * Returns the channel in which the event is queued once it is due.
+     *
+     * @return The channel ID.
+     */
+    public short getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the scheduled event.
+     *
+     * @return The event.
+     */
+    public @NotNull Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the future which completes once the event has been dispatched.
+     *
+     * @return The future of the event.
+     */
+    public @NotNull CompletableFuture<Event> getFuture() {
+        return future;
+    }
+
+}
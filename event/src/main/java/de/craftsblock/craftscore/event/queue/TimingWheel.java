@@ -0,0 +1,262 @@
+package de.craftsblock.craftscore.event.queue;
+
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel holding the {@link ScheduledCall scheduled calls} of a {@link CallQueue}.
+ * <p>
+ * The wheel consists of {@value #LEVELS} levels with {@value #SLOTS} slots each. A slot of
+ * the lowest level covers a single tick of one millisecond, and every slot of a higher level
+ * covers a whole revolution of the level below. A call is placed in the lowest level whose
+ * range contains its deadline and moves down a level each time the wheel reaches its slot,
+ * until it is due. Every slot is a doubly linked list, so that both placing and removing
+ * a call take constant time regardless of the number of scheduled calls.
+ * <p>
+ * The wheel is not driven by a thread of its own. It is advanced by the thread dispatching
+ * the {@link CallQueue}, and calls scheduled or cancelled by other threads are handed over
+ * through lock-free queues, which are processed on the next advance.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ScheduledCall
+ * @since 3.8.17
+ */
+final class TimingWheel {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 7;
+
+    private final long origin = System.nanoTime();
+
+    private final ScheduledCall[][] heads = new ScheduledCall[LEVELS][SLOTS];
+    private final ScheduledCall[][] tails = new ScheduledCall[LEVELS][SLOTS];
+
+    private final MpscQueue<ScheduledCall> scheduled = new MpscQueue<>();
+    private final MpscQueue<ScheduledCall> cancelled = new MpscQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick = 0;
+    private int linked = 0;
+
+    /**
+     * Schedules an event to be due after the given delay.
+     *
+     * @param channel The channel in which the event is queued once it is due.
+     * @param delay   The delay after which the event is due.
+     * @param event   The event to schedule.
+     * @return The handle of the scheduled event.
+     */
+    @NotNull ScheduledCall schedule(short channel, @NotNull Duration delay, @NotNull Event event) {
+        long nanos;
+        try {
+            nanos = Math.max(0, delay.toNanos());
+        } catch (ArithmeticException e) {
+            nanos = delay.isNegative() ? 0 : Long.MAX_VALUE / 2;
+        }
+
+        // Round up, so that an event is never due before its delay has passed
+        long elapsed = System.nanoTime() - origin;
+        long deadline = (Math.min(elapsed + nanos, Long.MAX_VALUE - TICK_NANOS) + TICK_NANOS - 1) / TICK_NANOS;
+
+        ScheduledCall call = new ScheduledCall(this, channel, event, deadline);
+        pending.incrementAndGet();
+        scheduled.offer(call);
+        return call;
+    }
+
+    /**
+     * Hands a cancelled call over to the thread advancing the wheel.
+     *
+     * @param call The cancelled call.
+     */
+    void cancelled(@NotNull ScheduledCall call) {
+        pending.decrementAndGet();
+        cancelled.offer(call);
+    }
+
+    /**
+     * Returns the number of scheduled calls which are neither due nor cancelled.
+     *
+     * @return The number of pending calls.
+     */
+    int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Advances the wheel to the current time and passes all calls which are due to the
+     * given action, in the order of their deadlines. If the wheel is already being advanced
+     * by another thread, this returns right away.
+     *
+     * @param action The action receiving the due calls.
+     */
+    void advance(@NotNull Consumer<ScheduledCall> action) {
+        if (!lock.tryLock()) {
+            return;
+        }
+
+        try {
+            ScheduledCall call;
+            while ((call = scheduled.poll()) != null) {
+                if (!call.isCancelled()) {
+                    insert(call, action);
+                }
+            }
+
+            while ((call = cancelled.poll()) != null) {
+                unlink(call);
+            }
+
+            long now = (System.nanoTime() - origin) / TICK_NANOS;
+            while (currentTick < now) {
+                if (linked == 0) {
+                    currentTick = now;
+                    break;
+                }
+
+                currentTick++;
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (level * BITS)) - 1)) == 0) {
+                        cascade(level, (int) (currentTick >>> (level * BITS)) & SLOT_MASK, action);
+                    }
+                }
+
+                expire((int) currentTick & SLOT_MASK, action);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Places a call in the slot matching its deadline, or passes it to the action if it is due.
+     *
+     * @param call   The call to place.
+     * @param action The action receiving due calls.
+     */
+    private void insert(@NotNull ScheduledCall call, @NotNull Consumer<ScheduledCall> action) {
+        if (call.deadline <= currentTick) {
+            if (call.fire()) {
+                pending.decrementAndGet();
+                action.accept(call);
+            }
+
+            return;
+        }
+
+        int level = Math.min(LEVELS - 1, (63 - Long.numberOfLeadingZeros(call.deadline ^ currentTick)) / BITS);
+        int slot = (int) (call.deadline >>> (level * BITS)) & SLOT_MASK;
+
+        call.level = level;
+        call.previous = tails[level][slot];
+        call.next = null;
+
+        if (call.previous != null) {
+            call.previous.next = call;
+        } else {
+            heads[level][slot] = call;
+        }
+
+        tails[level][slot] = call;
+        linked++;
+    }
+
+    /**
+     * Removes a call from its slot. Does nothing if the call is not placed in a slot.
+     *
+     * @param call The call to remove.
+     */
+    private void unlink(@NotNull ScheduledCall call) {
+        int level = call.level;
+        if (level < 0) {
+            return;
+        }
+
+        int slot = (int) (call.deadline >>> (level * BITS)) & SLOT_MASK;
+        if (call.previous != null) {
+            call.previous.next = call.next;
+        } else {
+            heads[level][slot] = call.next;
+        }
+
+        if (call.next != null) {
+            call.next.previous = call.previous;
+        } else {
+            tails[level][slot] = call.previous;
+        }
+
+        call.previous = call.next = null;
+        call.level = -1;
+        linked--;
+    }
+
+    /**
+     * Moves the calls of a slot of a higher level down to the levels below.
+     *
+     * @param level  The level of the slot.
+     * @param slot   The slot to cascade.
+     * @param action The action receiving due calls.
+     */
+    private void cascade(int level, int slot, @NotNull Consumer<ScheduledCall> action) {
+        ScheduledCall call = detach(level, slot);
+        while (call != null) {
+            ScheduledCall next = call.next;
+            insert(call, action);
+            call = next;
+        }
+    }
+
+    /**
+     * Passes the calls of a slot of the lowest level to the action.
+     *
+     * @param slot   The slot to expire.
+     * @param action The action receiving due calls.
+     */
+    private void expire(int slot, @NotNull Consumer<ScheduledCall> action) {
+        ScheduledCall call = detach(0, slot);
+        while (call != null) {
+            ScheduledCall next = call.next;
+            call.next = null;
+
+            if (call.fire()) {
+                pending.decrementAndGet();
+                action.accept(call);
+            }
+
+            call = next;
+        }
+    }
+
+    /**
+     * Removes all calls from a slot.
+     *
+     * @param level The level of the slot.
+     * @param slot  The slot to empty.
+     * @return The first of the removed calls, which are still linked with each other.
+     */
+    private ScheduledCall detach(int level, int slot) {
+        ScheduledCall head = heads[level][slot];
+        heads[level][slot] = tails[level][slot] = null;
+
+        for (ScheduledCall call = head; call != null; call = call.next) {
+            call.previous = null;
+            call.level = -1;
+            linked--;
+        }
+
+        return head;
+    }
+
+}
@@ -0,0 +1,154 @@
+package de.craftsblock.craftscore.event.ring;
+
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A preallocated ring of event slots shared by many producers and a single consumer.
+ * <p>
+ * Producers claim a sequence with a compare-and-set on the claim cursor, store their event
+ * in the slot of the sequence and mark the slot as published by writing the lap of the
+ * sequence into the availability array. The consumer processes all contiguously published
+ * sequences as one batch and then advances its own sequence, which frees the slots for
+ * the producers again. Neither side allocates anything after the ring has been created.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see RingDispatcher
+ * @since 3.8.17
+ */
+final class RingBuffer {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Event[] slots;
+    private final int[] available;
+    private final int mask;
+    private final int shift;
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private volatile long cachedConsumed = -1;
+
+    /**
+     * Creates a new ring.
+     *
+     * @param capacity The number of slots, which must be a power of two.
+     */
+    RingBuffer(int capacity) {
+        this.slots = new Event[capacity];
+        this.available = new int[capacity];
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+
+        Arrays.fill(available, -1);
+    }
+
+    /**
+     * Claims the next sequence, if there is a free slot.
+     *
+     * @return The claimed sequence, or {@code -1} if the ring is full.
+     */
+    long tryClaim() {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            long wrap = next - slots.length;
+
+            if (wrap > cachedConsumed) {
+                long consumer = consumed.get();
+                if (wrap > consumer) {
+                    return -1;
+                }
+
+                cachedConsumed = consumer;
+            }
+
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Stores an event in the slot of a claimed sequence and publishes it to the consumer.
+     *
+     * @param sequence The claimed sequence.
+     * @param event    The event, or {@code null} to release the slot without an event.
+     */
+    void publish(long sequence, @Nullable Event event) {
+        int index = (int) sequence & mask;
+        slots[index] = event;
+        AVAILABLE.setRelease(available, index, (int) (sequence >>> shift));
+    }
+
+    /**
+     * Passes all published events following the last consumed sequence to the action and
+     * frees their slots afterwards. Must only be called by the consumer, and the action
+     * must not throw.
+     *
+     * @param action The action processing the events.
+     * @return The number of processed sequences.
+     */
+    int consume(@NotNull Consumer<Event> action) {
+        long next = consumed.get() + 1;
+        long highest = claimed.get();
+
+        long last = next - 1;
+        while (last < highest && (int) AVAILABLE.getAcquire(available, (int) (last + 1) & mask) == (int) ((last + 1) >>> shift)) {
+            last++;
+        }
+
+        if (last < next) {
+            return 0;
+        }
+
+        for (long sequence = next; sequence <= last; sequence++) {
+            int index = (int) sequence & mask;
+            Event event = slots[index];
+            slots[index] = null;
+
+            if (event != null) {
+                action.accept(event);
+            }
+        }
+
+        consumed.set(last);
+        return (int) (last - next + 1);
+    }
+
+    /**
+     * Returns whether every claimed sequence has been consumed.
+     *
+     * @return {@code true} if the ring is drained, otherwise {@code false}.
+     */
+    boolean isDrained() {
+        return consumed.get() >= claimed.get();
+    }
+
+    /**
+     * Returns the number of claimed but not yet consumed sequences.
+     *
+     * @return The number of pending events.
+     */
+    int size() {
+        return (int) Math.max(0, claimed.get() - consumed.get());
+    }
+
+    /**
+     * Returns the number of slots of this ring.
+     *
+     * @return The capacity.
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+}
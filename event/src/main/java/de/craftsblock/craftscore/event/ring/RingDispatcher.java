@@ -0,0 +1,358 @@
+package de.craftsblock.craftscore.event.ring;
+
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.ListenerRegistry;
+import de.craftsblock.craftscore.event.ReusableEvent;
+import de.craftsblock.craftscore.event.Routable;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A dispatcher which hands events over to dedicated consumer threads through preallocated
+ * ring buffers, in the style of the LMAX Disruptor.
+ * <p>
+ * Every consumer thread owns a ring of its own. A producer claims a slot in the ring with a
+ * lock-free sequence and publishes the event without allocating anything, and the consumer
+ * calls the baked listeners of the {@link ListenerRegistry} for all published events in
+ * batches. Events are assigned to the consumers by their {@link Routable routing key}, or
+ * by their class if they have none, so that events of the same key or type are always
+ * dispatched by the same thread in the order they have been published.
+ * <p>
+ * Pooled {@link ReusableEvent reusable events} are owned by the dispatcher once they have
+ * been published and are released to their pool after they have been dispatched.
+ * <p>
+ * Listeners called by a ring dispatcher must be thread-safe with respect to listeners
+ * running on other threads, and exceptions thrown by them are passed to the
+ * {@link #setExceptionHandler(BiConsumer) exception handler}.
+ *
+ * <pre>{@code
+ * try (RingDispatcher dispatcher = new RingDispatcher(registry, 4096, 2, WaitStrategy.yielding())) {
+ *     dispatcher.publish(new PlayerMoveEvent(player, location));
+ * }
+ * }</pre>
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see WaitStrategy
+ * @since 3.8.17
+ */
+public final class RingDispatcher implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final ListenerRegistry registry;
+    private final RingBuffer[] rings;
+    private final Thread[] consumers;
+    private final WaitStrategy waitStrategy;
+
+    private volatile BiConsumer<Event, Throwable> exceptionHandler = RingDispatcher::uncaught;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new ring dispatcher with a single consumer thread, which parks for up to
+     * a millisecond while idle.
+     *
+     * @param registry The registry whose listeners are called.
+     * @param capacity The number of slots of the ring, which must be a power of two.
+     * @throws IllegalArgumentException If the capacity is not a positive power of two.
+     */
+    public RingDispatcher(@NotNull ListenerRegistry registry, int capacity) {
+        this(registry, capacity, 1, WaitStrategy.parking(Duration.ofMillis(1)));
+    }
+
+    /**
+     * Creates a new ring dispatcher with the given number of daemon consumer threads.
+     *
+     * @param registry     The registry whose listeners are called.
+     * @param capacity     The number of slots of the ring of every consumer, which must be a power of two.
+     * @param consumers    The number of consumer threads.
+     * @param waitStrategy The strategy the consumers wait with while no event is available.
+     * @throws IllegalArgumentException If the capacity is not a positive power of two or the number of consumers is not positive.
+     */
+    public RingDispatcher(@NotNull ListenerRegistry registry, int capacity, int consumers, @NotNull WaitStrategy waitStrategy) {
+        this(registry, capacity, consumers, waitStrategy, task -> {
+            Thread thread = new Thread(task, "craftscore-ring-dispatcher-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new ring dispatcher with the given number of consumer threads.
+     *
+     * @param registry      The registry whose listeners are called.
+     * @param capacity      The number of slots of the ring of every consumer, which must be a power of two.
+     * @param consumers     The number of consumer threads.
+     * @param waitStrategy  The strategy the consumers wait with while no event is available.
+     * @param threadFactory The factory creating the consumer threads.
+     * @throws IllegalArgumentException If the capacity is not a positive power of two or the number of consumers is not positive.
+     */
+    public RingDispatcher(@NotNull ListenerRegistry registry, int capacity, int consumers,
+                          @NotNull WaitStrategy waitStrategy, @NotNull ThreadFactory threadFactory) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a positive power of two, but was %s!".formatted(capacity));
+        }
+
+        if (consumers <= 0) {
+            throw new IllegalArgumentException("The number of consumers must be positive, but was %s!".formatted(consumers));
+        }
+
+        this.registry = registry;
+        this.waitStrategy = waitStrategy;
+        this.rings = new RingBuffer[consumers];
+        this.consumers = new Thread[consumers];
+
+        for (int i = 0; i < consumers; i++) {
+            RingBuffer ring = rings[i] = new RingBuffer(capacity);
+            this.consumers[i] = threadFactory.newThread(() -> consume(ring));
+        }
+
+        for (Thread consumer : this.consumers) {
+            consumer.start();
+        }
+    }
+
+    /**
+     * Publishes an event to its consumer. If the ring of the consumer is full, this
+     * waits until the consumer has freed a slot.
+     *
+     * @param event The event to publish.
+     * @throws IllegalStateException If the dispatcher has been closed.
+     */
+    public void publish(@NotNull Event event) {
+        RingBuffer ring = ringOf(event);
+
+        long sequence;
+        while ((sequence = ring.tryClaim()) < 0) {
+            ensureOpen();
+            LockSupport.parkNanos(1);
+        }
+
+        publish(ring, sequence, event);
+    }
+
+    /**
+     * Publishes an event to its consumer, if the ring of the consumer has a free slot.
+     *
+     * @param event The event to publish.
+     * @return {@code true} if the event has been published, {@code false} if the ring is full.
+     * @throws IllegalStateException If the dispatcher has been closed.
+     */
+    public boolean tryPublish(@NotNull Event event) {
+        ensureOpen();
+
+        RingBuffer ring = ringOf(event);
+        long sequence = ring.tryClaim();
+        if (sequence < 0) {
+            return false;
+        }
+
+        publish(ring, sequence, event);
+        return true;
+    }
+
+    /**
+     * Publishes an event into a claimed slot. If the dispatcher has been closed after the
+     * slot has been claimed, the slot is released without the event, as the consumer may
+     * already have stopped.
+     *
+     * @param ring     The ring of the consumer.
+     * @param sequence The claimed sequence.
+     * @param event    The event to publish.
+     * @throws IllegalStateException If the dispatcher has been closed.
+     */
+    private void publish(@NotNull RingBuffer ring, long sequence, @NotNull Event event) {
+        if (closed) {
+            ring.publish(sequence, null);
+            ensureOpen();
+        }
+
+        ring.publish(sequence, event);
+    }
+
+    /**
+     * Returns the ring of the consumer responsible for the given event.
+     *
+     * @param event The event.
+     * @return The ring of the consumer.
+     */
+    private @NotNull RingBuffer ringOf(@NotNull Event event) {
+        if (rings.length == 1) {
+            return rings[0];
+        }
+
+        Object key = event instanceof Routable routable ? routable.getRoutingKey() : null;
+        int hash = key != null ? key.hashCode() : event.getClass().hashCode();
+        return rings[Math.floorMod(hash ^ (hash >>> 16), rings.length)];
+    }
+
+    /**
+     * The loop of a consumer thread, which dispatches the events of its ring until the
+     * dispatcher has been closed and the ring has been drained.
+     *
+     * @param ring The ring of the consumer.
+     */
+    private void consume(@NotNull RingBuffer ring) {
+        Consumer<Event> dispatch = this::dispatch;
+        int attempt = 0;
+
+        while (true) {
+            if (ring.consume(dispatch) > 0) {
+                attempt = 0;
+                continue;
+            }
+
+            if (closed && ring.isDrained()) {
+                return;
+            }
+
+            waitStrategy.idle(attempt);
+            if (attempt < Integer.MAX_VALUE) {
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Calls the listeners of an event and passes any exception to the exception handler.
+     * Pooled {@link ReusableEvent reusable events} are released to their pool afterwards.
+     *
+     * @param event The event to dispatch.
+     */
+    private void dispatch(@NotNull Event event) {
+        try {
+            registry.call(event);
+        } catch (Throwable e) {
+            handle(event, e);
+        }
+
+        if (event instanceof ReusableEvent reusable) {
+            try {
+                reusable.close();
+            } catch (Throwable e) {
+                handle(event, e);
+            }
+        }
+    }
+
+    /**
+     * Passes an exception to the exception handler, ignoring any exception thrown by the handler itself.
+     *
+     * @param event     The event whose dispatch threw the exception.
+     * @param throwable The thrown exception.
+     */
+    private void handle(@NotNull Event event, @NotNull Throwable throwable) {
+        try {
+            exceptionHandler.accept(event, throwable);
+        } catch (Throwable ignored) {
+            // The consumer must survive a failing exception handler
+        }
+    }
+
+    /**
+     * Sets the handler for exceptions thrown by listeners. By default, exceptions are
+     * passed to the uncaught exception handler of the consumer thread, which keeps running.
+     *
+     * @param exceptionHandler The handler receiving the event and the thrown exception.
+     */
+    public void setExceptionHandler(@NotNull BiConsumer<Event, Throwable> exceptionHandler) {
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Returns the number of slots of the ring of every consumer.
+     *
+     * @return The capacity of a ring.
+     */
+    public int getCapacity() {
+        return rings[0].capacity();
+    }
+
+    /**
+     * Returns the number of consumer threads.
+     *
+     * @return The number of consumers.
+     */
+    public int getConsumerCount() {
+        return rings.length;
+    }
+
+    /**
+     * Returns the number of events which have been published but not yet dispatched.
+     *
+     * @return The number of pending events.
+     */
+    public long size() {
+        long size = 0;
+        for (RingBuffer ring : rings) {
+            size += ring.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns whether the dispatcher has been closed.
+     *
+     * @return {@code true} if the dispatcher has been closed, otherwise {@code false}.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops accepting events and waits until the consumers have dispatched all events
+     * which have been published before. If called by a consumer thread, this does not
+     * wait for that consumer.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+
+        for (Thread consumer : consumers) {
+            if (consumer == Thread.currentThread()) {
+                continue;
+            }
+
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ensures that the dispatcher has not been closed.
+     *
+     * @throws IllegalStateException If the dispatcher has been closed.
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The ring dispatcher has been closed!");
+        }
+    }
+
+    /**
+     * Passes an exception thrown by a listener to the uncaught exception handler of the current thread.
+     *
+     * @param event     The event whose listener threw the exception.
+     * @param throwable The thrown exception.
+     */
+    private static void uncaught(@NotNull Event event, @NotNull Throwable throwable) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+    }
+
+}
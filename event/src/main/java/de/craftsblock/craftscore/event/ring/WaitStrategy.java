@@ -0,0 +1,85 @@
+package de.craftsblock.craftscore.event.ring;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides how the consumer threads of a {@link RingDispatcher} wait while no event
+ * has been published.
+ * <p>
+ * The strategies trade latency for CPU usage: {@link #busySpin()} reacts the fastest but
+ * keeps a core busy, {@link #yielding()} gives other threads a chance to run, and
+ * {@link #parking(Duration)} eventually puts an idle consumer to sleep.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see RingDispatcher
+ * @since 3.8.17
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Waits for a short moment, because no event is available.
+     *
+     * @param attempt The number of consecutive times the consumer has been idle before,
+     *                which is reset as soon as an event is available.
+     */
+    void idle(int attempt);
+
+    /**
+     * Returns a strategy which spins on the processor without ever giving up the core.
+     * This gives the lowest latency, but should only be used if there is a core for
+     * every consumer.
+     *
+     * @return The busy spinning strategy.
+     */
+    static @NotNull WaitStrategy busySpin() {
+        return attempt -> Thread.onSpinWait();
+    }
+
+    /**
+     * Returns a strategy which spins for a while and then yields the processor to
+     * other threads between its attempts.
+     *
+     * @return The yielding strategy.
+     */
+    static @NotNull WaitStrategy yielding() {
+        return attempt -> {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        };
+    }
+
+    /**
+     * Returns a strategy which spins and yields for a while and then parks the consumer
+     * for up to the given duration between its attempts. The duration bounds the latency
+     * of the first event published after the consumer has fallen asleep.
+     *
+     * @param maxPark The maximum duration to park the consumer for.
+     * @return The parking strategy.
+     * @throws IllegalArgumentException If the duration is not positive.
+     */
+    static @NotNull WaitStrategy parking(@NotNull Duration maxPark) {
+        if (maxPark.isNegative() || maxPark.isZero()) {
+            throw new IllegalArgumentException("The park duration must be positive, but was %s!".formatted(maxPark));
+        }
+
+        long nanos = maxPark.toNanos();
+        return attempt -> {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else if (attempt < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(nanos);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,45 @@
+package de.craftsblock.craftscore.event.watchdog;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serial;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Signals that an asynchronous listener has been timed out by the {@link ListenerWatchdog}
+ * because it exceeded its budget.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ListenerWatchdog
+ * @since 3.8.17
+ */
+public class ListenerTimeoutException extends TimeoutException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient SlowListener report;
+
+    /**
+     * Creates a new timeout exception for the given report.
+     *
+     * @param report The report of the timed out listener.
+     */
+    public ListenerTimeoutException(@NotNull SlowListener report) {
+        super("The listener %s exceeded its budget of %s ms while handling %s!".formatted(
+                report.listener(), report.budget().toMillis(), report.event().getClass().getName()
+        ));
+        this.report = report;
+    }
+
+    /**
+     * Returns the report of the timed out listener.
+     *
+     * @return The report.
+     */
+    public @NotNull SlowListener getReport() {
+        return report;
+    }
+
+}
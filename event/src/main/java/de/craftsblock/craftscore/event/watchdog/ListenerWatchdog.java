@@ -0,0 +1,300 @@
+package de.craftsblock.craftscore.event.watchdog;
+
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.EventPriority;
+import de.craftsblock.craftscore.event.listener.Listener;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Watches the listeners executed by the asynchronous dispatch of a
+ * {@link de.craftsblock.craftscore.event.ListenerRegistry ListenerRegistry}
+ * and reports those which exceed their budget.
+ * <p>
+ * The budget of a listener starts once the executor starts running it. It is
+ * resolved from the budgets configured for the event type, the priority of the
+ * listener and the default budget, in this order. If several event type budgets
+ * match an event, the smallest one is used.
+ * <p>
+ * Listeners exceeding their budget are passed to the reporter. If timeouts are
+ * enabled, such listeners are additionally interrupted and their result is completed
+ * with a {@link ListenerTimeoutException}, so that a single stalled listener can not
+ * hold back the remaining stages of an event forever.
+ *
+ * <pre>{@code
+ * ListenerWatchdog watchdog = new ListenerWatchdog(Duration.ofSeconds(1), slow -> log(slow))
+ *         .budget(EventPriority.MONITOR, Duration.ofMillis(100))
+ *         .budget(ChatEvent.class, Duration.ofMillis(50))
+ *         .setTimeoutEnabled(true);
+ * registry.setWatchdog(watchdog);
+ * }</pre>
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see SlowListener
+ * @since 3.8.17
+ */
+public class ListenerWatchdog implements AutoCloseable {
+
+    private final Duration defaultBudget;
+    private final Consumer<SlowListener> reporter;
+
+    private final AtomicReferenceArray<Duration> priorityBudgets = new AtomicReferenceArray<>(EventPriority.values().length);
+    private final Map<Class<?>, Duration> eventBudgets = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Duration> resolvedEventBudgets = new ConcurrentHashMap<>();
+    private volatile boolean timeoutEnabled = false;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * Creates a new watchdog.
+     *
+     * @param defaultBudget The budget of listeners for which no other budget has been configured.
+     * @param reporter      The callback receiving the listeners which exceeded their budget.
+     * @throws IllegalArgumentException If the default budget is not positive.
+     */
+    public ListenerWatchdog(@NotNull Duration defaultBudget, @NotNull Consumer<SlowListener> reporter) {
+        this.defaultBudget = requirePositive(defaultBudget);
+        this.reporter = reporter;
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "CraftsCore Listener Watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Sets the budget of all listeners with the given priority.
+     *
+     * @param priority The priority of the listeners.
+     * @param budget   The budget of the listeners.
+     * @return This watchdog for chaining.
+     * @throws IllegalArgumentException If the budget is not positive.
+     */
+    public @NotNull ListenerWatchdog budget(@NotNull EventPriority priority, @NotNull Duration budget) {
+        priorityBudgets.set(priority.ordinal(), requirePositive(budget));
+        return this;
+    }
+
+    /**
+     * Sets the budget of all listeners handling events of the given type, including
+     * its subclasses and implementations.
+     *
+     * @param eventType The event type, may also be an interface.
+     * @param budget    The budget of the listeners.
+     * @return This watchdog for chaining.
+     * @throws IllegalArgumentException If the budget is not positive.
+     */
+    public @NotNull ListenerWatchdog budget(@NotNull Class<?> eventType, @NotNull Duration budget) {
+        eventBudgets.put(eventType, requirePositive(budget));
+        resolvedEventBudgets.clear();
+        return this;
+    }
+
+    /**
+     * Sets whether listeners exceeding their budget should be timed out. Timed out
+     * listeners are interrupted and their result is completed with a
+     * {@link ListenerTimeoutException}.
+     *
+     * @param timeoutEnabled {@code true} to time out listeners, {@code false} to only report them.
+     * @return This watchdog for chaining.
+     */
+    public @NotNull ListenerWatchdog setTimeoutEnabled(boolean timeoutEnabled) {
+        this.timeoutEnabled = timeoutEnabled;
+        return this;
+    }
+
+    /**
+     * Checks whether listeners exceeding their budget are timed out.
+     *
+     * @return {@code true} if listeners are timed out, {@code false} if they are only reported.
+     */
+    public boolean isTimeoutEnabled() {
+        return timeoutEnabled;
+    }
+
+    /**
+     * Returns the budget of the given listener while handling the given event.
+     *
+     * @param event    The event being handled.
+     * @param listener The listener handling the event.
+     * @return The budget of the listener.
+     */
+    public @NotNull Duration budgetOf(@NotNull Event event, @NotNull Listener listener) {
+        Duration eventBudget = resolvedEventBudgets.computeIfAbsent(event.getClass(), this::resolveEventBudget);
+        if (!eventBudget.isZero()) {
+            return eventBudget;
+        }
+
+        Duration priorityBudget = priorityBudgets.get(listener.getPriority().ordinal());
+        return priorityBudget != null ? priorityBudget : defaultBudget;
+    }
+
+    /**
+     * Runs the given listener on the given executor while watching its execution time.
+     *
+     * @param event    The event to pass to the listener.
+     * @param listener The listener to run.
+     * @param executor The executor used for asynchronous execution.
+     * @return A {@link CompletableFuture} which completes once the listener has finished or has been timed out.
+     */
+    public @NotNull CompletableFuture<Void> run(@NotNull Event event, @NotNull Listener listener, @NotNull Executor executor) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Duration budget = budgetOf(event, listener);
+
+        executor.execute(() -> {
+            Watch watch = new Watch(event, listener, budget, result);
+            ScheduledFuture<?> check = watch.schedule();
+
+            try {
+                listener.call(event);
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                if (check != null) {
+                    check.cancel(false);
+                }
+
+                watch.finish();
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Stops the watchdog. Listeners which are still running are not reported anymore.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Ensures that the given budget is positive.
+     *
+     * @param budget The budget to check.
+     * @return The budget.
+     * @throws IllegalArgumentException If the budget is not positive.
+     */
+    private static Duration requirePositive(Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("The budget must be positive, but was %s!".formatted(budget));
+        }
+
+        return budget;
+    }
+
+    /**
+     * Resolves the smallest budget configured for the given event class or any of its supertypes.
+     *
+     * @param eventClass The concrete event class.
+     * @return The budget, or {@link Duration#ZERO} if no budget has been configured.
+     */
+    private Duration resolveEventBudget(Class<?> eventClass) {
+        Duration budget = Duration.ZERO;
+        for (Map.Entry<Class<?>, Duration> entry : eventBudgets.entrySet()) {
+            if (!entry.getKey().isAssignableFrom(eventClass)) {
+                continue;
+            }
+
+            if (budget.isZero() || entry.getValue().compareTo(budget) < 0) {
+                budget = entry.getValue();
+            }
+        }
+
+        return budget;
+    }
+
+    /**
+     * Tracks a single running listener.
+     */
+    private final class Watch {
+
+        private final Event event;
+        private final Listener listener;
+        private final Duration budget;
+        private final CompletableFuture<Void> result;
+        private final Thread thread = Thread.currentThread();
+        private final long start = System.nanoTime();
+
+        private boolean running = true;
+        private boolean expired = false;
+
+        /**
+         * Creates a new watch for the listener running on the current thread.
+         *
+         * @param event    The event being handled.
+         * @param listener The listener handling the event.
+         * @param budget   The budget of the listener.
+         * @param result   The future completing once the listener has finished.
+         */
+        private Watch(Event event, Listener listener, Duration budget, CompletableFuture<Void> result) {
+            this.event = event;
+            this.listener = listener;
+            this.budget = budget;
+            this.result = result;
+        }
+
+        /**
+         * Schedules the check of this watch once the budget has been exceeded.
+         *
+         * @return The scheduled check, or {@code null} if the watchdog has been closed.
+         */
+        private ScheduledFuture<?> schedule() {
+            try {
+                return scheduler.schedule(this::expire, budget.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Reports the listener if it is still running, and times it out if enabled.
+         */
+        private void expire() {
+            boolean timeout = isTimeoutEnabled();
+            SlowListener report;
+
+            synchronized (this) {
+                if (!running) {
+                    return;
+                }
+
+                report = new SlowListener(event, listener, Duration.ofNanos(System.nanoTime() - start), budget, timeout);
+                if (timeout) {
+                    // Complete the result first, so that the interrupted listener can not complete it regularly
+                    result.completeExceptionally(new ListenerTimeoutException(report));
+
+                    expired = true;
+                    thread.interrupt();
+                }
+            }
+
+            reporter.accept(report);
+        }
+
+        /**
+         * Marks the listener as finished and clears an interrupt caused by a timeout,
+         * so that it does not leak into the next task of the executing thread.
+         */
+        private void finish() {
+            synchronized (this) {
+                running = false;
+                if (expired) {
+                    Thread.interrupted();
+                }
+            }
+        }
+
+    }
+
+}
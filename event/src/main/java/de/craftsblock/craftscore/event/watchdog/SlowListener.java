@@ -0,0 +1,24 @@
+package de.craftsblock.craftscore.event.watchdog;
+
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.listener.Listener;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Describes a listener which has exceeded its budget while handling an event asynchronously.
+ *
+ * @param event    The event which was being handled.
+ * @param listener The listener which exceeded its budget.
+ * @param elapsed  The time the listener had been running when it was reported.
+ * @param budget   The budget of the listener.
+ * @param timedOut Whether the listener has been timed out.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @see ListenerWatchdog
+ * @since 3.8.17
+ */
+public record SlowListener(@NotNull Event event, @NotNull Listener listener, @NotNull Duration elapsed,
+                           @NotNull Duration budget, boolean timedOut) {
+}